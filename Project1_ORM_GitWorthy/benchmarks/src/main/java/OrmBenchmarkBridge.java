@@ -0,0 +1,221 @@
+import Annotations.PrimaryKey;
+import benchmarks.OrmHotPaths;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.StringJoiner;
+
+//Class that gives the benchmarks in the benchmarks package access to the ORM
+//It lives in the default package alongside the ORM's classes, so it can reach package-private members such as the
+//EntityMetadata constructor, and is loaded by name through OrmHotPaths
+public class OrmBenchmarkBridge implements OrmHotPaths {
+    //Member variables
+    private Class<?> entityClass;
+    private String jdbcUrl;
+    private Object entity;
+    private Repository<Object> repository;
+    private SQLPlan sqlPlan;
+    private Column[] readColumns;
+    private Column[] writeColumns;
+    private Object[] writeValues;
+    private SQLResultSetReader<Object> reader;
+
+    //Connection borrowed for the whole trial, along with the statements and scrollable result set used by the
+    //binding and hydration benchmarks
+    private PooledConnection pooledConnection;
+    private PreparedStatement createStatement;
+    private PreparedStatement updateStatement;
+    private Statement scanStatement;
+    private ResultSet scanResultSet;
+    private int[] scanIndexes;
+
+    public void setUp(Class<?> entityClass, String jdbcUrl, int rows) throws Exception {
+        this.entityClass = entityClass;
+        this.jdbcUrl = jdbcUrl;
+
+        EntityMetadata metadata = EntityMetadataRegistry.getMetadata(entityClass);
+        if (!metadata.isEntity()) {
+            throw new IllegalArgumentException(entityClass + " is not an entity");
+        }
+
+        //Create and fill the table, then build the repository that reads it
+        try (Connection connection = ORMConnectionManager.connect(jdbcUrl);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + metadata.getTableName());
+            statement.execute(makeCreateTableSQL(metadata));
+        }
+
+        entity = entityClass.getConstructor().newInstance();
+        repository = new Repository<>(entity, jdbcUrl);
+        sqlPlan = repository.getSqlPlan();
+        readColumns = sqlPlan.getReadColumns();
+        writeColumns = sqlPlan.getWriteColumns();
+        writeValues = new Object[writeColumns.length];
+        reader = new SQLResultSetReader<>();
+
+        for (int i = 1; i <= rows; i++) {
+            repository.create(makeEntity(i));
+        }
+
+        //Point the benchmark entity at the first row so reads and updates find it
+        Column primaryKeyColumn = sqlPlan.getPrimaryKeyColumn();
+        primaryKeyColumn.setValue(entity, primaryKeyColumn.getValue(repository.readAll().get(0)));
+
+        pooledConnection = repository.getConnectionPool().borrowConnection();
+        createStatement = pooledConnection.prepareStatement(sqlPlan.getCreateSQL());
+        updateStatement = pooledConnection.prepareStatement(sqlPlan.getUpdateSQL());
+        scanStatement = pooledConnection.getConnection().createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        scanResultSet = scanStatement.executeQuery(sqlPlan.getReadAllSQL());
+        scanIndexes = reader.resolveReadColumnIndexes(sqlPlan, scanResultSet);
+    }
+
+    public void tearDown() throws Exception {
+        scanResultSet.close();
+        scanStatement.close();
+
+        //The create and update statements belong to the connection's statement cache and are closed with it
+        pooledConnection.close();
+        ORMConnectionManager.closeAll();
+    }
+
+    public Object buildEntityMetadata() {
+        return new EntityMetadata(entityClass);
+    }
+
+    public Object constructRepository() {
+        return new Repository<>(entity, jdbcUrl);
+    }
+
+    public Object generateSQL() {
+        EntityMetadata metadata = repository.getEntityMetadata();
+
+        return new String[] {
+                SQLStringScriptor.makeCreateSQLString(metadata),
+                SQLStringScriptor.makeReadSQLString(metadata),
+                SQLStringScriptor.makeReadAllSQLString(metadata),
+                SQLStringScriptor.makeReadAllPKsSQLString(metadata),
+                SQLStringScriptor.makeUpdateSQLString(metadata),
+                SQLStringScriptor.makeDeleteSQLString(metadata)
+        };
+    }
+
+    public Object bindCreate() {
+        return SQLPreparedStatementScriptor.prepareCreateStatement(repository, createStatement, entity);
+    }
+
+    public Object bindUpdate() {
+        return SQLPreparedStatementScriptor.prepareUpdateStatement(repository, updateStatement, entity);
+    }
+
+    public Object hydrateRow() {
+        //Walk the result set, wrapping around to the first row at the end
+        try {
+            if (!scanResultSet.next()) {
+                scanResultSet.beforeFirst();
+                scanResultSet.next();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return reader.readRow(repository, readColumns, scanIndexes, scanResultSet, entity);
+    }
+
+    public Object read() {
+        return repository.read(entity);
+    }
+
+    public Object readAll() {
+        return repository.readAll();
+    }
+
+    public Object readFieldsReflective() {
+        try {
+            for (int i = 0; i < writeColumns.length; i++) {
+                writeValues[i] = writeColumns[i].getGetter().invoke(entity);
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return writeValues;
+    }
+
+    public Object readFieldsAccessors() {
+        for (int i = 0; i < writeColumns.length; i++) {
+            writeValues[i] = writeColumns[i].getValue(entity);
+        }
+
+        return writeValues;
+    }
+
+    public Object writeFieldsReflective() {
+        try {
+            for (int i = 0; i < writeColumns.length; i++) {
+                writeColumns[i].getSetter().invoke(entity, writeValues[i]);
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return entity;
+    }
+
+    public Object writeFieldsAccessors() {
+        for (int i = 0; i < writeColumns.length; i++) {
+            writeColumns[i].setValue(entity, writeValues[i]);
+        }
+
+        return entity;
+    }
+
+    //Method to create an entity for row number i, filling every writable field from the row number
+    private Object makeEntity(int i) throws ReflectiveOperationException {
+        Object o = entityClass.getConstructor().newInstance();
+
+        for (Column column : repository.getSqlPlan().getWriteColumns()) {
+            Class<?> type = column.getProperty().getType();
+
+            if (type == String.class) {
+                column.setValue(o, column.getFieldName() + "-" + i);
+            }
+            else if (type == Integer.class || type == int.class) {
+                column.setValue(o, i);
+            }
+            else if (type == Long.class || type == long.class) {
+                column.setValue(o, i * 1000L);
+            }
+            else if (type == Double.class || type == double.class) {
+                column.setValue(o, i * 1.5);
+            }
+            else if (type == boolean.class) {
+                column.setValue(o, i % 2 == 0);
+            }
+        }
+
+        return o;
+    }
+
+    //Method to write the CREATE TABLE statement for an entity from its columns' codecs
+    private static String makeCreateTableSQL(EntityMetadata metadata) {
+        StringJoiner columns = new StringJoiner(", ", "CREATE TABLE " + metadata.getTableName() + " (", ")");
+
+        for (Column column : metadata.getTable().getColumns()) {
+            String definition = column.getFieldName() + " " + JDBCType.valueOf(column.getCodec().getSQLType()).getName();
+            PrimaryKey primaryKey = column.getProperty().getAnnotation(PrimaryKey.class);
+
+            if (primaryKey != null) {
+                definition += primaryKey.autoIncrement() ? " AUTO_INCREMENT PRIMARY KEY" : " PRIMARY KEY";
+            }
+
+            columns.add(definition);
+        }
+
+        return columns.toString();
+    }
+}
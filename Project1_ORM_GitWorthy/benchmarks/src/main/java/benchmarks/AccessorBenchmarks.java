@@ -0,0 +1,50 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+//Benchmarks comparing Method.invoke with the columns' LambdaMetafactory accessors for every field of a row
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessorBenchmarks {
+    @Param({"narrow", "wide", "numeric"})
+    public String shape;
+
+    private OrmHotPaths orm;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        orm = EntityBenchmarks.loadBridge();
+        orm.setUp(EntityBenchmarks.getEntityClass(shape), EntityBenchmarks.JDBC_URL, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        orm.tearDown();
+    }
+
+    @Benchmark
+    public Object readFieldsReflective() {
+        return orm.readFieldsReflective();
+    }
+
+    @Benchmark
+    public Object readFieldsAccessors() {
+        return orm.readFieldsAccessors();
+    }
+
+    @Benchmark
+    public Object writeFieldsReflective() {
+        return orm.writeFieldsReflective();
+    }
+
+    @Benchmark
+    public Object writeFieldsAccessors() {
+        return orm.writeFieldsAccessors();
+    }
+}
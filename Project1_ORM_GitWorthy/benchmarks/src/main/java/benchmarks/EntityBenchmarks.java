@@ -0,0 +1,95 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+//Benchmarks for the ORM's per-entity and per-row hot paths, for a narrow, a wide and an all-primitive entity
+//Run with -prof gc to see the bytes allocated per operation alongside throughput
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityBenchmarks {
+    //In-memory H2 database in MariaDB mode, kept open between connections for the length of the trial
+    static final String JDBC_URL = "jdbc:h2:mem:orm_bench;MODE=MariaDB;DB_CLOSE_DELAY=-1";
+
+    @Param({"narrow", "wide", "numeric"})
+    public String shape;
+
+    //Number of rows in the table read by readAll and walked by hydrateRow
+    @Param({"100"})
+    public int rows;
+
+    private OrmHotPaths orm;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        orm = loadBridge();
+        orm.setUp(getEntityClass(shape), JDBC_URL, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        orm.tearDown();
+    }
+
+    //Method to return the entity class benchmarked for a shape parameter
+    static Class<?> getEntityClass(String shape) {
+        switch (shape) {
+            case "wide":
+                return WideEntity.class;
+            case "numeric":
+                return NumericEntity.class;
+            default:
+                return NarrowEntity.class;
+        }
+    }
+
+    //Method to load the default-package bridge to the ORM by name
+    static OrmHotPaths loadBridge() throws ReflectiveOperationException {
+        return (OrmHotPaths) Class.forName("OrmBenchmarkBridge").getConstructor().newInstance();
+    }
+
+    @Benchmark
+    public Object buildEntityMetadata() {
+        return orm.buildEntityMetadata();
+    }
+
+    @Benchmark
+    public Object constructRepository() {
+        return orm.constructRepository();
+    }
+
+    @Benchmark
+    public Object generateSQL() {
+        return orm.generateSQL();
+    }
+
+    @Benchmark
+    public Object bindCreate() {
+        return orm.bindCreate();
+    }
+
+    @Benchmark
+    public Object bindUpdate() {
+        return orm.bindUpdate();
+    }
+
+    @Benchmark
+    public Object hydrateRow() {
+        return orm.hydrateRow();
+    }
+
+    @Benchmark
+    public Object read() {
+        return orm.read();
+    }
+
+    @Benchmark
+    public Object readAll() {
+        return orm.readAll();
+    }
+}
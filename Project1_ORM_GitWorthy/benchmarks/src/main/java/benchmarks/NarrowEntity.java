@@ -0,0 +1,43 @@
+package benchmarks;
+
+import Annotations.*;
+
+//Two column entity laid out like the ORM's TestClassA
+@Entity(tableName = "narrow_entity")
+public class NarrowEntity {
+    @PrimaryKey(autoIncrement = false)
+    @Property(fieldName = "id")
+    private Integer id;
+
+    @Property(fieldName = "name")
+    private String name;
+
+    public NarrowEntity() {
+    }
+
+    public NarrowEntity(Integer id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @FakeConstructor
+    public NarrowEntity fakeConstructor() {
+        return new NarrowEntity();
+    }
+}
@@ -0,0 +1,231 @@
+package benchmarks;
+
+import Annotations.*;
+
+//Entity of 20 primitive columns with an auto-increment key, for measuring binding and hydration without boxing
+@Entity(tableName = "numeric_entity")
+public class NumericEntity {
+    @PrimaryKey(autoIncrement = true)
+    @Property(fieldName = "id")
+    private int id;
+
+    @Property(fieldName = "count1")
+    private int count1;
+
+    @Property(fieldName = "count2")
+    private int count2;
+
+    @Property(fieldName = "count3")
+    private int count3;
+
+    @Property(fieldName = "count4")
+    private int count4;
+
+    @Property(fieldName = "count5")
+    private int count5;
+
+    @Property(fieldName = "count6")
+    private int count6;
+
+    @Property(fieldName = "total1")
+    private long total1;
+
+    @Property(fieldName = "total2")
+    private long total2;
+
+    @Property(fieldName = "total3")
+    private long total3;
+
+    @Property(fieldName = "total4")
+    private long total4;
+
+    @Property(fieldName = "total5")
+    private long total5;
+
+    @Property(fieldName = "total6")
+    private long total6;
+
+    @Property(fieldName = "amount1")
+    private double amount1;
+
+    @Property(fieldName = "amount2")
+    private double amount2;
+
+    @Property(fieldName = "amount3")
+    private double amount3;
+
+    @Property(fieldName = "amount4")
+    private double amount4;
+
+    @Property(fieldName = "amount5")
+    private double amount5;
+
+    @Property(fieldName = "amount6")
+    private double amount6;
+
+    @Property(fieldName = "flag")
+    private boolean flag;
+
+    public NumericEntity() {
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getCount1() {
+        return count1;
+    }
+
+    public int getCount2() {
+        return count2;
+    }
+
+    public int getCount3() {
+        return count3;
+    }
+
+    public int getCount4() {
+        return count4;
+    }
+
+    public int getCount5() {
+        return count5;
+    }
+
+    public int getCount6() {
+        return count6;
+    }
+
+    public long getTotal1() {
+        return total1;
+    }
+
+    public long getTotal2() {
+        return total2;
+    }
+
+    public long getTotal3() {
+        return total3;
+    }
+
+    public long getTotal4() {
+        return total4;
+    }
+
+    public long getTotal5() {
+        return total5;
+    }
+
+    public long getTotal6() {
+        return total6;
+    }
+
+    public double getAmount1() {
+        return amount1;
+    }
+
+    public double getAmount2() {
+        return amount2;
+    }
+
+    public double getAmount3() {
+        return amount3;
+    }
+
+    public double getAmount4() {
+        return amount4;
+    }
+
+    public double getAmount5() {
+        return amount5;
+    }
+
+    public double getAmount6() {
+        return amount6;
+    }
+
+    public boolean isFlag() {
+        return flag;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public void setCount1(int count1) {
+        this.count1 = count1;
+    }
+
+    public void setCount2(int count2) {
+        this.count2 = count2;
+    }
+
+    public void setCount3(int count3) {
+        this.count3 = count3;
+    }
+
+    public void setCount4(int count4) {
+        this.count4 = count4;
+    }
+
+    public void setCount5(int count5) {
+        this.count5 = count5;
+    }
+
+    public void setCount6(int count6) {
+        this.count6 = count6;
+    }
+
+    public void setTotal1(long total1) {
+        this.total1 = total1;
+    }
+
+    public void setTotal2(long total2) {
+        this.total2 = total2;
+    }
+
+    public void setTotal3(long total3) {
+        this.total3 = total3;
+    }
+
+    public void setTotal4(long total4) {
+        this.total4 = total4;
+    }
+
+    public void setTotal5(long total5) {
+        this.total5 = total5;
+    }
+
+    public void setTotal6(long total6) {
+        this.total6 = total6;
+    }
+
+    public void setAmount1(double amount1) {
+        this.amount1 = amount1;
+    }
+
+    public void setAmount2(double amount2) {
+        this.amount2 = amount2;
+    }
+
+    public void setAmount3(double amount3) {
+        this.amount3 = amount3;
+    }
+
+    public void setAmount4(double amount4) {
+        this.amount4 = amount4;
+    }
+
+    public void setAmount5(double amount5) {
+        this.amount5 = amount5;
+    }
+
+    public void setAmount6(double amount6) {
+        this.amount6 = amount6;
+    }
+
+    public void setFlag(boolean flag) {
+        this.flag = flag;
+    }
+}
@@ -0,0 +1,46 @@
+package benchmarks;
+
+//Interface the benchmarks use to reach the ORM
+//The ORM's classes are in the default package, which code in a named package (as JMH requires benchmarks to be)
+//cannot refer to, so OrmBenchmarkBridge in the default package implements this interface and is loaded by name once
+//per trial; calls through it are plain interface calls and add nothing measurable
+public interface OrmHotPaths {
+    //Method to create the entity's table in the database at the given URL, fill it with rows, and set up the
+    //repository, statements and result set the other methods use
+    void setUp(Class<?> entityClass, String jdbcUrl, int rows) throws Exception;
+
+    void tearDown() throws Exception;
+
+    //Method to build the entity's metadata from scratch, i.e. all of the reflection done the first time an entity
+    //class is used
+    Object buildEntityMetadata();
+
+    //Method to construct a repository for an entity whose metadata is already registered
+    Object constructRepository();
+
+    //Method to generate every SQL statement for the entity with SQLStringScriptor
+    Object generateSQL();
+
+    //Methods to bind an entity to the INSERT and UPDATE statements with SQLPreparedStatementScriptor
+    Object bindCreate();
+
+    Object bindUpdate();
+
+    //Method to read the current row of an open result set into an entity with SQLResultSetReader
+    Object hydrateRow();
+
+    //Methods to run whole repository operations against the database
+    Object read();
+
+    Object readAll();
+
+    //Methods to call every getter of an entity, through Method.invoke or through the column accessors
+    Object readFieldsReflective();
+
+    Object readFieldsAccessors();
+
+    //Methods to call every setter of an entity, through Method.invoke or through the column accessors
+    Object writeFieldsReflective();
+
+    Object writeFieldsAccessors();
+}
@@ -0,0 +1,280 @@
+package benchmarks;
+
+import Annotations.*;
+
+//Wide entity of 24 columns of mixed types with an auto-increment key, for measuring costs that grow with row width
+@Entity(tableName = "wide_entity")
+public class WideEntity {
+    @PrimaryKey(autoIncrement = true)
+    @Property(fieldName = "id")
+    private Integer id;
+
+    @Property(fieldName = "text1")
+    private String text1;
+
+    @Property(fieldName = "text2")
+    private String text2;
+
+    @Property(fieldName = "text3")
+    private String text3;
+
+    @Property(fieldName = "text4")
+    private String text4;
+
+    @Property(fieldName = "text5")
+    private String text5;
+
+    @Property(fieldName = "text6")
+    private String text6;
+
+    @Property(fieldName = "text7")
+    private String text7;
+
+    @Property(fieldName = "text8")
+    private String text8;
+
+    @Property(fieldName = "count1")
+    private Integer count1;
+
+    @Property(fieldName = "count2")
+    private Integer count2;
+
+    @Property(fieldName = "count3")
+    private Integer count3;
+
+    @Property(fieldName = "count4")
+    private Integer count4;
+
+    @Property(fieldName = "count5")
+    private Integer count5;
+
+    @Property(fieldName = "count6")
+    private Integer count6;
+
+    @Property(fieldName = "count7")
+    private Integer count7;
+
+    @Property(fieldName = "count8")
+    private Integer count8;
+
+    @Property(fieldName = "amount1")
+    private Double amount1;
+
+    @Property(fieldName = "amount2")
+    private Double amount2;
+
+    @Property(fieldName = "amount3")
+    private Double amount3;
+
+    @Property(fieldName = "amount4")
+    private Double amount4;
+
+    @Property(fieldName = "total1")
+    private Long total1;
+
+    @Property(fieldName = "total2")
+    private Long total2;
+
+    @Property(fieldName = "total3")
+    private Long total3;
+
+    public WideEntity() {
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getText1() {
+        return text1;
+    }
+
+    public String getText2() {
+        return text2;
+    }
+
+    public String getText3() {
+        return text3;
+    }
+
+    public String getText4() {
+        return text4;
+    }
+
+    public String getText5() {
+        return text5;
+    }
+
+    public String getText6() {
+        return text6;
+    }
+
+    public String getText7() {
+        return text7;
+    }
+
+    public String getText8() {
+        return text8;
+    }
+
+    public Integer getCount1() {
+        return count1;
+    }
+
+    public Integer getCount2() {
+        return count2;
+    }
+
+    public Integer getCount3() {
+        return count3;
+    }
+
+    public Integer getCount4() {
+        return count4;
+    }
+
+    public Integer getCount5() {
+        return count5;
+    }
+
+    public Integer getCount6() {
+        return count6;
+    }
+
+    public Integer getCount7() {
+        return count7;
+    }
+
+    public Integer getCount8() {
+        return count8;
+    }
+
+    public Double getAmount1() {
+        return amount1;
+    }
+
+    public Double getAmount2() {
+        return amount2;
+    }
+
+    public Double getAmount3() {
+        return amount3;
+    }
+
+    public Double getAmount4() {
+        return amount4;
+    }
+
+    public Long getTotal1() {
+        return total1;
+    }
+
+    public Long getTotal2() {
+        return total2;
+    }
+
+    public Long getTotal3() {
+        return total3;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public void setText1(String text1) {
+        this.text1 = text1;
+    }
+
+    public void setText2(String text2) {
+        this.text2 = text2;
+    }
+
+    public void setText3(String text3) {
+        this.text3 = text3;
+    }
+
+    public void setText4(String text4) {
+        this.text4 = text4;
+    }
+
+    public void setText5(String text5) {
+        this.text5 = text5;
+    }
+
+    public void setText6(String text6) {
+        this.text6 = text6;
+    }
+
+    public void setText7(String text7) {
+        this.text7 = text7;
+    }
+
+    public void setText8(String text8) {
+        this.text8 = text8;
+    }
+
+    public void setCount1(Integer count1) {
+        this.count1 = count1;
+    }
+
+    public void setCount2(Integer count2) {
+        this.count2 = count2;
+    }
+
+    public void setCount3(Integer count3) {
+        this.count3 = count3;
+    }
+
+    public void setCount4(Integer count4) {
+        this.count4 = count4;
+    }
+
+    public void setCount5(Integer count5) {
+        this.count5 = count5;
+    }
+
+    public void setCount6(Integer count6) {
+        this.count6 = count6;
+    }
+
+    public void setCount7(Integer count7) {
+        this.count7 = count7;
+    }
+
+    public void setCount8(Integer count8) {
+        this.count8 = count8;
+    }
+
+    public void setAmount1(Double amount1) {
+        this.amount1 = amount1;
+    }
+
+    public void setAmount2(Double amount2) {
+        this.amount2 = amount2;
+    }
+
+    public void setAmount3(Double amount3) {
+        this.amount3 = amount3;
+    }
+
+    public void setAmount4(Double amount4) {
+        this.amount4 = amount4;
+    }
+
+    public void setTotal1(Long total1) {
+        this.total1 = total1;
+    }
+
+    public void setTotal2(Long total2) {
+        this.total2 = total2;
+    }
+
+    public void setTotal3(Long total3) {
+        this.total3 = total3;
+    }
+
+    @FakeConstructor
+    public WideEntity fakeConstructor() {
+        return new WideEntity();
+    }
+}
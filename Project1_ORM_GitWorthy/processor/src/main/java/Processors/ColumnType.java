@@ -0,0 +1,182 @@
+package Processors;
+
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+
+//Class that describes how a generated mapper binds and reads one Java type, mirroring the ORM's BuiltInTypeCodecs
+//The primitive wrappers and String bind their default value for null fields; the other types bind SQL NULL
+//SQL NULL is read as null, checking wasNull for the wrappers, and as zero/false for primitive fields, which are bound
+//and read without boxing
+final class ColumnType {
+    //Member variables
+    private final String javaType;
+    private final String setMethod;
+    private final String bindConversion;
+    private final String defaultValue;
+    private final String sqlType;
+    private final String rawType;
+    private final String getMethod;
+    private final String readConversion;
+
+    //Primitive type JDBC reads a wrapper as, checked with wasNull, or the field's own type for primitive fields
+    private final String primitiveType;
+    private final boolean primitive;
+
+    //Constructor taking in the PreparedStatement setter and ResultSet getter used for the type, and the expressions
+    //used to convert to and from the JDBC value ("%s" stands for the value), or null if no conversion is needed
+    private ColumnType(String javaType, String setMethod, String bindConversion, String defaultValue, String sqlType,
+                       String rawType, String getMethod, String readConversion, String primitiveType, boolean primitive) {
+        this.javaType = javaType;
+        this.setMethod = setMethod;
+        this.bindConversion = bindConversion;
+        this.defaultValue = defaultValue;
+        this.sqlType = sqlType;
+        this.rawType = rawType;
+        this.getMethod = getMethod;
+        this.readConversion = readConversion;
+        this.primitiveType = primitiveType;
+        this.primitive = primitive;
+    }
+
+    //Method to return the column type for a field type, or null if mappers cannot bind the type
+    static ColumnType forType(TypeMirror type) {
+        switch (type.getKind()) {
+            case BYTE:
+                return primitive("byte", "Byte");
+            case SHORT:
+                return primitive("short", "Short");
+            case INT:
+                return primitive("int", "Int");
+            case LONG:
+                return primitive("long", "Long");
+            case FLOAT:
+                return primitive("float", "Float");
+            case DOUBLE:
+                return primitive("double", "Double");
+            case BOOLEAN:
+                return primitive("boolean", "Boolean");
+            default:
+                break;
+        }
+
+        if (type.getKind() == TypeKind.ARRAY) {
+            return type.toString().equals("byte[]")
+                    ? simple("byte[]", "Bytes", null, "VARBINARY", null)
+                    : null;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+
+        String name = type.toString();
+
+        if (EntityMapperProcessor.isEnum(type)) {
+            return converted(name, "String", "%s.name()", "VARCHAR", "String", name + ".valueOf(%s)");
+        }
+
+        switch (name) {
+            case "java.lang.Byte":
+                return simple(name, "Byte", "(byte) 0", "TINYINT", "byte");
+            case "java.lang.Short":
+                return simple(name, "Short", "(short) 0", "SMALLINT", "short");
+            case "java.lang.Integer":
+                return simple(name, "Int", "0", "INTEGER", "int");
+            case "java.lang.Long":
+                return simple(name, "Long", "0L", "BIGINT", "long");
+            case "java.lang.Float":
+                return simple(name, "Float", "0.0f", "REAL", "float");
+            case "java.lang.Double":
+                return simple(name, "Double", "0.0", "DOUBLE", "double");
+            case "java.lang.Boolean":
+                return simple(name, "Boolean", "false", "BOOLEAN", "boolean");
+            case "java.lang.String":
+                return simple(name, "String", "\"\"", "VARCHAR", null);
+            case "java.math.BigDecimal":
+                return simple(name, "BigDecimal", null, "DECIMAL", null);
+            case "java.util.UUID":
+                return converted(name, "String", "%s.toString()", "CHAR", "String", "java.util.UUID.fromString(%s)");
+            case "java.time.LocalDate":
+                return converted(name, "Date", "java.sql.Date.valueOf(%s)", "DATE", "java.sql.Date", "%s.toLocalDate()");
+            case "java.time.LocalTime":
+                return converted(name, "Time", "java.sql.Time.valueOf(%s)", "TIME", "java.sql.Time", "%s.toLocalTime()");
+            case "java.time.LocalDateTime":
+                return converted(name, "Timestamp", "java.sql.Timestamp.valueOf(%s)", "TIMESTAMP", "java.sql.Timestamp",
+                        "%s.toLocalDateTime()");
+            case "java.time.Instant":
+                return converted(name, "Timestamp", "java.sql.Timestamp.from(%s)", "TIMESTAMP", "java.sql.Timestamp",
+                        "%s.toInstant()");
+            default:
+                return null;
+        }
+    }
+
+    //Method to create a type bound and read with the JDBC method of the same name, checking wasNull after reading it as
+    //a given primitive type if it is not null
+    private static ColumnType simple(String javaType, String jdbcName, String defaultValue, String sqlType,
+                                     String primitiveType) {
+        return new ColumnType(javaType, "set" + jdbcName, null, defaultValue, sqlType, javaType, "get" + jdbcName, null,
+                primitiveType, false);
+    }
+
+    //Method to create a primitive type, bound and read with the JDBC method of the same name
+    private static ColumnType primitive(String javaType, String jdbcName) {
+        return new ColumnType(javaType, "set" + jdbcName, null, null, null, javaType, "get" + jdbcName, null, javaType,
+                true);
+    }
+
+    //Method to create a type that is converted to and from another JDBC type, with no default value
+    private static ColumnType converted(String javaType, String jdbcName, String bindConversion, String sqlType,
+                                        String rawType, String readConversion) {
+        return new ColumnType(javaType, "set" + jdbcName, bindConversion, null, sqlType, rawType, "get" + jdbcName,
+                readConversion, null, false);
+    }
+
+    //Method to write the statements binding a local variable holding a field value to a parameter
+    String writeBind(String variable, String index) {
+        String value = (bindConversion == null) ? variable : String.format(bindConversion, variable);
+
+        if (primitive) {
+            return "preparedStatement." + setMethod + "(" + index + ", " + value + ");";
+        }
+        if (defaultValue != null) {
+            return "preparedStatement." + setMethod + "(" + index + ", (" + variable + " == null) ? " + defaultValue +
+                    " : " + value + ");";
+        }
+
+        return "if (" + variable + " == null) {\n" +
+                "            preparedStatement.setNull(" + index + ", java.sql.Types." + sqlType + ");\n" +
+                "        }\n" +
+                "        else {\n" +
+                "            preparedStatement." + setMethod + "(" + index + ", " + value + ");\n" +
+                "        }";
+    }
+
+    //Method to write the expression reading a column; if the value needs converting it is first read into a local
+    //variable by readStatement
+    String writeRead(String variable, int index) {
+        if (primitiveType != null && !primitive) {
+            return "rs.wasNull() ? null : " + variable;
+        }
+        if (readConversion == null) {
+            return "rs." + getMethod + "(" + index + ")";
+        }
+
+        return "(" + variable + " == null) ? null : " + String.format(readConversion, variable);
+    }
+
+    //Method to write the statement that reads a converted column into a local variable, or null if not needed
+    String writeReadStatement(String variable, int index) {
+        if (primitiveType != null && !primitive) {
+            return primitiveType + " " + variable + " = rs." + getMethod + "(" + index + ");";
+        }
+        if (readConversion == null) {
+            return null;
+        }
+
+        return rawType + " " + variable + " = rs." + getMethod + "(" + index + ");";
+    }
+
+    String getJavaType() {
+        return javaType;
+    }
+}
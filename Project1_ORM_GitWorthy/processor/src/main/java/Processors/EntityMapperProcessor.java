@@ -0,0 +1,265 @@
+package Processors;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//Annotation processor that generates an <Entity>_Mapper class, implementing Mapping.EntityMapper, for every class
+//with the Entity annotation
+//Columns, getters, setters and the fake constructor are found with the same rules EntityMetadata applies at runtime,
+//and the SQL is built the same way as SQLStringScriptor's; the ORM checks the generated SQL against its own plan before
+//using a mapper, so any difference just means the mapper is ignored
+//Entities with a column of a type the mapper cannot bind directly, or that are not top level public classes, are
+//skipped with a note and keep using reflection
+public class EntityMapperProcessor extends AbstractProcessor {
+    //Names of the ORM's annotations, referred to by name so the processor does not depend on the ORM
+    static final String ENTITY = "Annotations.Entity";
+    static final String PROPERTY = "Annotations.Property";
+    static final String PRIMARY_KEY = "Annotations.PrimaryKey";
+    static final String GETTER = "Annotations.Getter";
+    static final String SETTER = "Annotations.Setter";
+    static final String FAKE_CONSTRUCTOR = "Annotations.FakeConstructor";
+
+    //Suffix appended to an entity's class name to name its mapper, matching EntityMappers.MAPPER_SUFFIX
+    static final String MAPPER_SUFFIX = "_Mapper";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ENTITY);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement entityAnnotation = processingEnv.getElementUtils().getTypeElement(ENTITY);
+
+        if (entityAnnotation == null) {
+            return false;
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(entityAnnotation)) {
+            if (element.getKind() == ElementKind.CLASS) {
+                generateMapper((TypeElement) element);
+            }
+        }
+
+        return false;
+    }
+
+    //Method to generate the mapper for one entity class, or leave a note saying why it was skipped
+    private void generateMapper(TypeElement entity) {
+        if (entity.getNestingKind() != NestingKind.TOP_LEVEL || !entity.getModifiers().contains(Modifier.PUBLIC)) {
+            note(entity, "not a public top level class");
+            return;
+        }
+        if (!entity.getTypeParameters().isEmpty()) {
+            note(entity, "generic entity classes are not supported");
+            return;
+        }
+
+        //Build the columns in field declaration order, dropping any repeated column names as Table.add does
+        List<MappedColumn> columns = new ArrayList<>();
+        List<ExecutableElement> methods = getPublicMethods(entity);
+
+        for (VariableElement field : ElementFilter.fieldsIn(entity.getEnclosedElements())) {
+            String fieldName = getAnnotationString(field, PROPERTY, "fieldName");
+
+            if (fieldName == null || containsColumn(columns, fieldName)) {
+                continue;
+            }
+
+            MappedColumn column = new MappedColumn(fieldName, field);
+            column.setGetter(findAccessor(methods, column, GETTER, column.getGetterName(), true));
+            column.setSetter(findAccessor(methods, column, SETTER, column.getSetterName(), false));
+
+            if (column.getType() == null) {
+                note(entity, "column " + fieldName + " has type " + field.asType() + ", which mappers do not bind");
+                return;
+            }
+
+            columns.add(column);
+        }
+
+        MapperWriter mapperWriter = new MapperWriter(entity, getAnnotationString(entity, ENTITY, "tableName"), columns,
+                findFakeConstructor(entity, methods), hasPublicNoArgsConstructor(entity));
+
+        String mapperName = entity.getQualifiedName() + MAPPER_SUFFIX;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(mapperName, entity).openWriter()) {
+            writer.write(mapperWriter.write());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + mapperName + ": " + e, entity);
+        }
+    }
+
+    //Method to return every public, non-static method of a class, including inherited ones, as Class.getMethods does
+    private List<ExecutableElement> getPublicMethods(TypeElement entity) {
+        List<ExecutableElement> methods = new ArrayList<>();
+
+        for (ExecutableElement m : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(entity))) {
+            if (m.getModifiers().contains(Modifier.PUBLIC) && !m.getModifiers().contains(Modifier.STATIC)) {
+                methods.add(m);
+            }
+        }
+
+        return methods;
+    }
+
+    //Method to find a column's getter or setter: the method annotated for its field name if there is one, otherwise the
+    //first method with the conventional name, and only if its signature matches the field's type
+    private ExecutableElement findAccessor(List<ExecutableElement> methods, MappedColumn column, String annotation,
+                                           String conventionalName, boolean getter) {
+        List<ExecutableElement> candidates = new ArrayList<>();
+
+        for (ExecutableElement m : methods) {
+            if (column.getFieldName().equals(getAnnotationString(m, annotation, "fieldName"))) {
+                candidates.add(m);
+                break;
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            for (ExecutableElement m : methods) {
+                if (m.getSimpleName().contentEquals(conventionalName)) {
+                    candidates.add(m);
+                }
+            }
+        }
+
+        TypeMirror fieldType = column.getField().asType();
+        for (ExecutableElement m : candidates) {
+            if (getter && m.getParameters().isEmpty() && isSameType(m.getReturnType(), fieldType)) {
+                return m;
+            }
+            if (!getter && m.getParameters().size() == 1 && isSameType(m.getParameters().get(0).asType(), fieldType)) {
+                return m;
+            }
+        }
+
+        return null;
+    }
+
+    //Method to find the first public method with the FakeConstructor annotation that takes no parameters and returns
+    //the entity type
+    private ExecutableElement findFakeConstructor(TypeElement entity, List<ExecutableElement> methods) {
+        for (ExecutableElement m : methods) {
+            if (hasAnnotation(m, FAKE_CONSTRUCTOR) && m.getParameters().isEmpty()
+                    && isSameType(m.getReturnType(), entity.asType())) {
+                return m;
+            }
+        }
+
+        return null;
+    }
+
+    private boolean hasPublicNoArgsConstructor(TypeElement entity) {
+        if (entity.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(entity.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isSameType(TypeMirror a, TypeMirror b) {
+        return processingEnv.getTypeUtils().isSameType(a, b);
+    }
+
+    private static boolean containsColumn(List<MappedColumn> columns, String fieldName) {
+        for (MappedColumn column : columns) {
+            if (column.getFieldName().equals(fieldName)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void note(TypeElement entity, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                "No mapper generated for " + entity.getQualifiedName() + ": " + reason, entity);
+    }
+
+    //Methods to read annotations by name
+    static boolean hasAnnotation(Element element, String annotation) {
+        return getAnnotation(element, annotation) != null;
+    }
+
+    static AnnotationMirror getAnnotation(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) {
+                return mirror;
+            }
+        }
+
+        return null;
+    }
+
+    //Method to return the value of an annotation's element, or null if the element does not have the annotation
+    static Object getAnnotationValue(Element element, String annotation, String name) {
+        AnnotationMirror mirror = getAnnotation(element, annotation);
+
+        if (mirror == null) {
+            return null;
+        }
+
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+
+        return null;
+    }
+
+    static String getAnnotationString(Element element, String annotation, String name) {
+        Object value = getAnnotationValue(element, annotation, name);
+        return (value == null) ? null : value.toString();
+    }
+
+    //Method to return the package an entity is in, or an empty string for the default package
+    static String getPackageName(TypeElement entity) {
+        Element enclosing = entity.getEnclosingElement();
+
+        while (enclosing != null && enclosing.getKind() != ElementKind.PACKAGE) {
+            enclosing = enclosing.getEnclosingElement();
+        }
+
+        return (enclosing == null) ? "" : ((PackageElement) enclosing).getQualifiedName().toString();
+    }
+
+    //Method to return whether a type is an enum, which mappers store by constant name
+    static boolean isEnum(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((javax.lang.model.type.DeclaredType) type).asElement().getKind() == ElementKind.ENUM;
+    }
+}
@@ -0,0 +1,79 @@
+package Processors;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.VariableElement;
+
+//Class that holds what the processor found for one field with the Property annotation - the compile time counterpart
+//of the ORM's Column
+final class MappedColumn {
+    //Member variables
+    private final String fieldName;
+    private final VariableElement field;
+    private final ColumnType type;
+    private final boolean primaryKey;
+    private final boolean autoIncrement;
+    private ExecutableElement getter;
+    private ExecutableElement setter;
+
+    MappedColumn(String fieldName, VariableElement field) {
+        this.fieldName = fieldName;
+        this.field = field;
+        this.type = ColumnType.forType(field.asType());
+        this.primaryKey = EntityMapperProcessor.hasAnnotation(field, EntityMapperProcessor.PRIMARY_KEY);
+        this.autoIncrement = Boolean.TRUE.equals(
+                EntityMapperProcessor.getAnnotationValue(field, EntityMapperProcessor.PRIMARY_KEY, "autoIncrement"));
+    }
+
+    //POJO getter/setter methods
+    String getFieldName() {
+        return fieldName;
+    }
+
+    VariableElement getField() {
+        return field;
+    }
+
+    ColumnType getType() {
+        return type;
+    }
+
+    boolean isPrimaryKey() {
+        return primaryKey;
+    }
+
+    boolean isAutoIncrement() {
+        return autoIncrement;
+    }
+
+    ExecutableElement getGetter() {
+        return getter;
+    }
+
+    ExecutableElement getSetter() {
+        return setter;
+    }
+
+    void setGetter(ExecutableElement getter) {
+        this.getter = getter;
+    }
+
+    void setSetter(ExecutableElement setter) {
+        this.setter = setter;
+    }
+
+    //Methods to return the conventional getter/setter names for the field, as Column does: "is" for Boolean and boolean
+    //fields and "get" otherwise, followed by the Java field name with its first letter capitalized
+    String getGetterName() {
+        String type = field.asType().toString();
+        String prefix = (type.equals("java.lang.Boolean") || type.equals("boolean")) ? "is" : "get";
+        return prefix + capitalize(field.getSimpleName().toString());
+    }
+
+    String getSetterName() {
+        return "set" + capitalize(field.getSimpleName().toString());
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
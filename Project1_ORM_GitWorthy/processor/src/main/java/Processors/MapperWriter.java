@@ -0,0 +1,289 @@
+package Processors;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import java.util.ArrayList;
+import java.util.List;
+
+//Class that writes the source of one entity's mapper
+//The columns are split into the same sub tables EntityMetadata builds - columns with valid getters, columns with valid
+//setters, and writable columns (getter columns that are not auto-increment) - and the SQL is assembled from them the
+//same way SQLStringScriptor does, down to the spacing
+final class MapperWriter {
+    //Member variables
+    private final TypeElement entity;
+    private final String tableName;
+    private final ExecutableElement fakeConstructor;
+    private final boolean publicNoArgsConstructor;
+    private final List<MappedColumn> getterColumns = new ArrayList<>();
+    private final List<MappedColumn> setterColumns = new ArrayList<>();
+    private final List<MappedColumn> writableColumns = new ArrayList<>();
+
+    //Primary key column used in WHERE clauses, and the one read by the read all primary keys statement
+    private final MappedColumn primaryKeyColumn;
+    private final MappedColumn setterPrimaryKeyColumn;
+
+    MapperWriter(TypeElement entity, String tableName, List<MappedColumn> columns, ExecutableElement fakeConstructor,
+                 boolean publicNoArgsConstructor) {
+        this.entity = entity;
+        this.tableName = tableName;
+        this.fakeConstructor = fakeConstructor;
+        this.publicNoArgsConstructor = publicNoArgsConstructor;
+
+        MappedColumn getterPrimaryKey = null;
+        MappedColumn setterPrimaryKey = null;
+
+        for (MappedColumn column : columns) {
+            //A column is only a valid primary key if it has a getter
+            boolean validPrimaryKey = column.isPrimaryKey() && column.getGetter() != null;
+
+            if (column.getGetter() != null) {
+                getterColumns.add(column);
+
+                if (!(column.isPrimaryKey() && column.isAutoIncrement())) {
+                    writableColumns.add(column);
+                }
+                if (validPrimaryKey && getterPrimaryKey == null) {
+                    getterPrimaryKey = column;
+                }
+            }
+            if (column.getSetter() != null) {
+                setterColumns.add(column);
+
+                if (validPrimaryKey && setterPrimaryKey == null) {
+                    setterPrimaryKey = column;
+                }
+            }
+        }
+
+        this.primaryKeyColumn = getterPrimaryKey;
+        this.setterPrimaryKeyColumn = setterPrimaryKey;
+    }
+
+    //Method to return the mapper's complete source file
+    String write() {
+        String packageName = EntityMapperProcessor.getPackageName(entity);
+        String entityName = entity.getSimpleName().toString();
+        String mapperName = entityName + EntityMapperProcessor.MAPPER_SUFFIX;
+        StringBuilder source = new StringBuilder();
+
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source.append("//Generated by Processors.EntityMapperProcessor from the mapping annotations on ").append(entityName)
+                .append(" - do not edit\n")
+                .append("public final class ").append(mapperName).append(" implements Mapping.EntityMapper<")
+                .append(entityName).append("> {\n");
+
+        //SQL constants
+        appendConstant(source, "CREATE_SQL", makeCreateSQL());
+        appendConstant(source, "READ_SQL", makeReadSQL());
+        appendConstant(source, "READ_ALL_SQL", makeReadAllSQL());
+        appendConstant(source, "READ_ALL_PKS_SQL", makeReadAllPKsSQL());
+        appendConstant(source, "UPDATE_SQL", makeUpdateSQL());
+        appendConstant(source, "DELETE_SQL", makeDeleteSQL());
+        source.append("\n");
+
+        appendMethod(source, "Class<" + entityName + "> getEntityClass()", "return " + entityName + ".class;");
+        appendMethod(source, "String getCreateSQL()", "return CREATE_SQL;");
+        appendMethod(source, "String getReadSQL()", "return READ_SQL;");
+        appendMethod(source, "String getReadAllSQL()", "return READ_ALL_SQL;");
+        appendMethod(source, "String getReadAllPKsSQL()", "return READ_ALL_PKS_SQL;");
+        appendMethod(source, "String getUpdateSQL()", "return UPDATE_SQL;");
+        appendMethod(source, "String getDeleteSQL()", "return DELETE_SQL;");
+
+        //Instantiation
+        String newInstance;
+        if (fakeConstructor != null) {
+            newInstance = "return prototype." + fakeConstructor.getSimpleName() + "();";
+        }
+        else if (publicNoArgsConstructor) {
+            newInstance = "return new " + entityName + "();";
+        }
+        else {
+            newInstance = "return null;";
+        }
+        appendMethod(source, entityName + " newInstance(" + entityName + " prototype)", newInstance);
+
+        //Binders
+        String throwsClause = " throws java.sql.SQLException";
+        String bindCreate = writeBinds(writableColumns, 1);
+        appendMethod(source, "void bindCreate(java.sql.PreparedStatement preparedStatement, " + entityName + " o)" +
+                throwsClause, bindCreate);
+
+        String bindUpdate = (primaryKeyColumn == null)
+                ? writeMissingPrimaryKey(entityName)
+                : writeBinds(writableColumns, 1) + "\n        " + writeBind(primaryKeyColumn, "p", Integer.toString(writableColumns.size() + 1));
+        appendMethod(source, "void bindUpdate(java.sql.PreparedStatement preparedStatement, " + entityName + " o)" +
+                throwsClause, bindUpdate.trim());
+
+        String bindPrimaryKey = (primaryKeyColumn == null)
+                ? writeMissingPrimaryKey(entityName)
+                : writeBind(primaryKeyColumn, "p", "index");
+        appendMethod(source, "void bindPrimaryKey(java.sql.PreparedStatement preparedStatement, int index, " +
+                entityName + " o)" + throwsClause, bindPrimaryKey);
+
+        //Hydrator
+        StringBuilder hydrate = new StringBuilder();
+        for (int i = 0; i < setterColumns.size(); i++) {
+            MappedColumn column = setterColumns.get(i);
+            String variable = "c" + (i + 1);
+            String readStatement = column.getType().writeReadStatement(variable, i + 1);
+
+            if (readStatement != null) {
+                hydrate.append(readStatement).append("\n        ");
+            }
+            hydrate.append("o.").append(column.getSetter().getSimpleName()).append("(")
+                    .append(column.getType().writeRead(variable, i + 1)).append(");\n        ");
+        }
+        hydrate.append("return o;");
+        appendMethod(source, entityName + " hydrate(java.sql.ResultSet rs, " + entityName + " o)" + throwsClause,
+                hydrate.toString());
+
+        //Remove the blank line after the last method
+        source.setLength(source.length() - 1);
+        source.append("}\n");
+
+        return source.toString();
+    }
+
+    //Methods to build the SQL, matching SQLStringScriptor
+    private String makeCreateSQL() {
+        return "INSERT INTO " + tableName + " (" + getFieldNameList(writableColumns) + ") " + " VALUES (" +
+                getPlaceholderList(writableColumns.size()) + ")";
+    }
+
+    private String makeReadSQL() {
+        if (primaryKeyColumn == null || setterColumns.isEmpty()) {
+            return "";
+        }
+
+        return "SELECT " + getFieldNameList(setterColumns) + " FROM " + tableName + getWhereClause();
+    }
+
+    private String makeReadAllPKsSQL() {
+        if (setterPrimaryKeyColumn == null) {
+            return "";
+        }
+
+        return "SELECT " + setterPrimaryKeyColumn.getFieldName() + " FROM " + tableName;
+    }
+
+    private String makeReadAllSQL() {
+        if (setterPrimaryKeyColumn == null || setterColumns.isEmpty()) {
+            return "";
+        }
+
+        return "SELECT " + getFieldNameList(setterColumns) + " FROM " + tableName;
+    }
+
+    private String makeUpdateSQL() {
+        if (primaryKeyColumn == null) {
+            return "";
+        }
+
+        StringBuilder setClause = new StringBuilder();
+        for (MappedColumn column : writableColumns) {
+            setClause.append((setClause.length() == 0) ? " SET " : ", ").append(column.getFieldName()).append(" = ?");
+        }
+
+        return "UPDATE " + tableName + setClause + getWhereClause();
+    }
+
+    private String makeDeleteSQL() {
+        if (primaryKeyColumn == null) {
+            return "";
+        }
+
+        return "DELETE FROM " + tableName + getWhereClause();
+    }
+
+    private String getWhereClause() {
+        return " WHERE " + primaryKeyColumn.getFieldName() + " = ?";
+    }
+
+    private static String getFieldNameList(List<MappedColumn> columns) {
+        StringBuilder fieldNames = new StringBuilder();
+
+        for (MappedColumn column : columns) {
+            if (fieldNames.length() > 0) {
+                fieldNames.append(", ");
+            }
+            fieldNames.append(column.getFieldName());
+        }
+
+        return fieldNames.toString();
+    }
+
+    private static String getPlaceholderList(int listSize) {
+        StringBuilder placeholderList = new StringBuilder();
+
+        for (int i = 0; i < listSize; i++) {
+            placeholderList.append((i == 0) ? "?" : ", ?");
+        }
+
+        return placeholderList.toString();
+    }
+
+    //Method to write the statements binding the given columns to consecutive parameters starting at firstIndex
+    private static String writeBinds(List<MappedColumn> columns, int firstIndex) {
+        StringBuilder binds = new StringBuilder();
+
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                binds.append("\n        ");
+            }
+            binds.append(writeBind(columns.get(i), "v" + (i + 1), Integer.toString(firstIndex + i)));
+        }
+
+        return binds.toString();
+    }
+
+    //Method to write the statements reading a column's value through its getter and binding it to a parameter
+    private static String writeBind(MappedColumn column, String variable, String index) {
+        return column.getType().getJavaType() + " " + variable + " = o." + column.getGetter().getSimpleName() + "();\n" +
+                "        " + column.getType().writeBind(variable, index);
+    }
+
+    private static String writeMissingPrimaryKey(String entityName) {
+        return "throw new java.sql.SQLException(\"" + entityName + " has no primary key with a valid getter\");";
+    }
+
+    private static void appendConstant(StringBuilder source, String name, String value) {
+        source.append("    public static final String ").append(name).append(" = ").append(toJavaString(value)).append(";\n");
+    }
+
+    private static void appendMethod(StringBuilder source, String signature, String body) {
+        source.append("    public ").append(signature).append(" {\n");
+
+        if (!body.isEmpty()) {
+            source.append("        ").append(body).append("\n");
+        }
+
+        source.append("    }\n\n");
+    }
+
+    //Method to quote a string as a Java string literal
+    private static String toJavaString(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                default:
+                    literal.append(c);
+            }
+        }
+
+        return literal.append("\"").toString();
+    }
+}
@@ -0,0 +1,163 @@
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+//Class that runs a repository's operations on a dedicated executor and returns CompletableFutures for their results
+//Futures complete with whatever the repository method returns, so a failed operation still completes with null or
+//false; a future only completes exceptionally if the operation threw or could not be queued
+//By default the executor has one thread per pooled connection and a bounded queue: once the queue is full new calls
+//get a future failed with RejectedExecutionException instead of piling up, which callers can treat as backpressure
+//Repository sessions are not thread-safe, so a repository wrapped here should not have a session open
+public class AsyncRepository<O> implements AutoCloseable {
+    //Default number of operations that can wait per executor thread before calls are rejected
+    public static final int DEFAULT_QUEUE_SIZE_PER_THREAD = 16;
+
+    //Number of executors created, used to name their threads
+    private static final AtomicInteger executorCount = new AtomicInteger();
+
+    //Member variables
+    private final Repository<O> repository;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+
+    //Constructor taking in the repository to wrap, creating an executor sized to the repository's connection pool
+    public AsyncRepository(Repository<O> repository) {
+        this(repository, (repository.getConnectionPool() == null) ? ORMConnectionPool.DEFAULT_MAX_SIZE
+                : repository.getConnectionPool().getMaxSize());
+    }
+
+    //Constructor taking in the repository to wrap and the number of executor threads
+    public AsyncRepository(Repository<O> repository, int threads) {
+        this.repository = repository;
+        this.executor = makeExecutor(threads, threads * DEFAULT_QUEUE_SIZE_PER_THREAD);
+        this.ownsExecutor = true;
+    }
+
+    //Constructor taking in the repository to wrap and an executor to run its operations on
+    //The executor is not shut down when this wrapper is closed
+    public AsyncRepository(Repository<O> repository, ExecutorService executor) {
+        this(repository, executor, false);
+    }
+
+    private AsyncRepository(Repository<O> repository, ExecutorService executor, boolean ownsExecutor) {
+        this.repository = repository;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    //Method to wrap a repository so that each operation runs on a virtual thread of its own, falling back to the
+    //default bounded executor if the running JDK does not support virtual threads
+    //Virtual threads are not queued: operations wait on the connection pool instead, and fail once its borrow
+    //timeout passes
+    public static <O> AsyncRepository<O> withVirtualThreads(Repository<O> repository) {
+        ExecutorService virtualThreadExecutor = ORMExecutors.newVirtualThreadPerTaskExecutor();
+
+        if (virtualThreadExecutor == null) {
+            repository.breadCrumb("Virtual threads not supported - using platform threads");
+            return new AsyncRepository<>(repository);
+        }
+
+        return new AsyncRepository<>(repository, virtualThreadExecutor, true);
+    }
+
+    //Method to create a fixed size executor of daemon threads with a bounded queue that rejects work once full
+    public static ExecutorService makeExecutor(int threads, int queueSize) {
+        int executorNumber = executorCount.incrementAndGet();
+        AtomicInteger threadCount = new AtomicInteger();
+
+        ThreadFactory threadFactory = r -> {
+            Thread thread = new Thread(r, "AsyncRepository-" + executorNumber + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize),
+                threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    //POJO getter methods
+    public Repository<O> getRepository() {
+        return repository;
+    }
+
+    //The executor can also be passed to the *Async methods of returned futures to keep follow-up work off the
+    //calling thread
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    //Asynchronous versions of the repository's operations
+    public CompletableFuture<O> create(O o) {
+        return submit(() -> repository.create(o));
+    }
+
+    public CompletableFuture<List<O>> createAll(Iterable<O> objects) {
+        return submit(() -> repository.createAll(objects));
+    }
+
+    public CompletableFuture<List<O>> createAll(Iterable<O> objects, int batchSize) {
+        return submit(() -> repository.createAll(objects, batchSize));
+    }
+
+    public CompletableFuture<List<O>> createAll(Iterable<O> objects, int batchSize, BulkInsertMode mode) {
+        return submit(() -> repository.createAll(objects, batchSize, mode));
+    }
+
+    public CompletableFuture<O> read(O o) {
+        return submit(() -> repository.read(o));
+    }
+
+    public CompletableFuture<O> read(O o, Object primaryKey) {
+        return submit(() -> repository.read(o, primaryKey));
+    }
+
+    public CompletableFuture<List<O>> readAll() {
+        return submit(repository::readAll);
+    }
+
+    public CompletableFuture<List<O>> readAllById(Collection<?> primaryKeys) {
+        return submit(() -> repository.readAllById(primaryKeys));
+    }
+
+    public CompletableFuture<List<O>> readAllById(Collection<?> primaryKeys, Collection<Object> missingKeys) {
+        return submit(() -> repository.readAllById(primaryKeys, missingKeys));
+    }
+
+    public CompletableFuture<O> update(O o) {
+        return submit(() -> repository.update(o));
+    }
+
+    public CompletableFuture<Boolean> delete(O o) {
+        return submit(() -> repository.delete(o));
+    }
+
+    //Method to run an operation on the executor, returning a failed future if the executor will not take it
+    public <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        try {
+            return CompletableFuture.supplyAsync(operation, executor);
+        } catch (RejectedExecutionException e) {
+            repository.breadCrumb("Async operation rejected: executor queue full");
+
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    //Method to stop taking new operations; operations already queued still run
+    //An executor passed in to the constructor is left running
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+}
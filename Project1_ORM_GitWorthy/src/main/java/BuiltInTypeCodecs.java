@@ -0,0 +1,361 @@
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+//Class holding the TypeCodecs that TypeCodecRegistry starts out with
+//The primitive wrappers and String keep the default values the ORM has always bound for null fields; the other types
+//bind SQL NULL for null fields
+//Every codec reads SQL NULL as null, checking wasNull for the types JDBC reads as primitives; the primitive types use
+//their wrapper's codec, with Column substituting the default value for NULL since a primitive field cannot hold null
+public class BuiltInTypeCodecs {
+    //Empty constructor
+    private BuiltInTypeCodecs() { }
+
+    //Method to register every built-in codec with the registry
+    static void registerAll() {
+        TypeCodecRegistry.register(Byte.class, new ByteCodec());
+        TypeCodecRegistry.register(Short.class, new ShortCodec());
+        TypeCodecRegistry.register(Integer.class, new IntegerCodec());
+        TypeCodecRegistry.register(Long.class, new LongCodec());
+        TypeCodecRegistry.register(Float.class, new FloatCodec());
+        TypeCodecRegistry.register(Double.class, new DoubleCodec());
+        TypeCodecRegistry.register(Boolean.class, new BooleanCodec());
+        TypeCodecRegistry.register(String.class, new StringCodec());
+        TypeCodecRegistry.register(BigDecimal.class, new BigDecimalCodec());
+        TypeCodecRegistry.register(byte[].class, new ByteArrayCodec());
+        TypeCodecRegistry.register(UUID.class, new UUIDCodec());
+        TypeCodecRegistry.register(LocalDate.class, new LocalDateCodec());
+        TypeCodecRegistry.register(LocalTime.class, new LocalTimeCodec());
+        TypeCodecRegistry.register(LocalDateTime.class, new LocalDateTimeCodec());
+        TypeCodecRegistry.register(Instant.class, new InstantCodec());
+
+        //Primitive fields use their wrapper's codec; Column binds and reads them through a PrimitiveAccessor instead
+        //wherever it can
+        TypeCodecRegistry.register(byte.class, new ByteCodec());
+        TypeCodecRegistry.register(short.class, new ShortCodec());
+        TypeCodecRegistry.register(int.class, new IntegerCodec());
+        TypeCodecRegistry.register(long.class, new LongCodec());
+        TypeCodecRegistry.register(float.class, new FloatCodec());
+        TypeCodecRegistry.register(double.class, new DoubleCodec());
+        TypeCodecRegistry.register(boolean.class, new BooleanCodec());
+    }
+
+    static final class ByteCodec implements TypeCodec<Byte> {
+        public void bind(PreparedStatement preparedStatement, int index, Byte value) throws SQLException {
+            preparedStatement.setByte(index, value);
+        }
+
+        public Byte read(ResultSet rs, int index) throws SQLException {
+            byte value = rs.getByte(index);
+            return rs.wasNull() ? null : value;
+        }
+
+        public Byte getDefaultValue() {
+            return (byte) 0;
+        }
+
+        public int getSQLType() {
+            return Types.TINYINT;
+        }
+    }
+
+    static final class ShortCodec implements TypeCodec<Short> {
+        public void bind(PreparedStatement preparedStatement, int index, Short value) throws SQLException {
+            preparedStatement.setShort(index, value);
+        }
+
+        public Short read(ResultSet rs, int index) throws SQLException {
+            short value = rs.getShort(index);
+            return rs.wasNull() ? null : value;
+        }
+
+        public Short getDefaultValue() {
+            return (short) 0;
+        }
+
+        public int getSQLType() {
+            return Types.SMALLINT;
+        }
+    }
+
+    static final class IntegerCodec implements TypeCodec<Integer> {
+        public void bind(PreparedStatement preparedStatement, int index, Integer value) throws SQLException {
+            preparedStatement.setInt(index, value);
+        }
+
+        public Integer read(ResultSet rs, int index) throws SQLException {
+            int value = rs.getInt(index);
+            return rs.wasNull() ? null : value;
+        }
+
+        public Integer getDefaultValue() {
+            return 0;
+        }
+
+        public int getSQLType() {
+            return Types.INTEGER;
+        }
+    }
+
+    static final class LongCodec implements TypeCodec<Long> {
+        public void bind(PreparedStatement preparedStatement, int index, Long value) throws SQLException {
+            preparedStatement.setLong(index, value);
+        }
+
+        public Long read(ResultSet rs, int index) throws SQLException {
+            long value = rs.getLong(index);
+            return rs.wasNull() ? null : value;
+        }
+
+        public Long getDefaultValue() {
+            return 0L;
+        }
+
+        public int getSQLType() {
+            return Types.BIGINT;
+        }
+    }
+
+    static final class FloatCodec implements TypeCodec<Float> {
+        public void bind(PreparedStatement preparedStatement, int index, Float value) throws SQLException {
+            preparedStatement.setFloat(index, value);
+        }
+
+        public Float read(ResultSet rs, int index) throws SQLException {
+            float value = rs.getFloat(index);
+            return rs.wasNull() ? null : value;
+        }
+
+        public Float getDefaultValue() {
+            return 0.0f;
+        }
+
+        public int getSQLType() {
+            return Types.REAL;
+        }
+    }
+
+    static final class DoubleCodec implements TypeCodec<Double> {
+        public void bind(PreparedStatement preparedStatement, int index, Double value) throws SQLException {
+            preparedStatement.setDouble(index, value);
+        }
+
+        public Double read(ResultSet rs, int index) throws SQLException {
+            double value = rs.getDouble(index);
+            return rs.wasNull() ? null : value;
+        }
+
+        public Double getDefaultValue() {
+            return 0.0;
+        }
+
+        public int getSQLType() {
+            return Types.DOUBLE;
+        }
+    }
+
+    static final class BooleanCodec implements TypeCodec<Boolean> {
+        public void bind(PreparedStatement preparedStatement, int index, Boolean value) throws SQLException {
+            preparedStatement.setBoolean(index, value);
+        }
+
+        public Boolean read(ResultSet rs, int index) throws SQLException {
+            boolean value = rs.getBoolean(index);
+            return rs.wasNull() ? null : value;
+        }
+
+        public Boolean getDefaultValue() {
+            return false;
+        }
+
+        public int getSQLType() {
+            return Types.BOOLEAN;
+        }
+    }
+
+    static final class StringCodec implements TypeCodec<String> {
+        public void bind(PreparedStatement preparedStatement, int index, String value) throws SQLException {
+            preparedStatement.setString(index, value);
+        }
+
+        public String read(ResultSet rs, int index) throws SQLException {
+            return rs.getString(index);
+        }
+
+        public String getDefaultValue() {
+            return "";
+        }
+
+        public int getSQLType() {
+            return Types.VARCHAR;
+        }
+    }
+
+    static final class BigDecimalCodec implements TypeCodec<BigDecimal> {
+        public void bind(PreparedStatement preparedStatement, int index, BigDecimal value) throws SQLException {
+            preparedStatement.setBigDecimal(index, value);
+        }
+
+        public BigDecimal read(ResultSet rs, int index) throws SQLException {
+            return rs.getBigDecimal(index);
+        }
+
+        public BigDecimal getDefaultValue() {
+            return null;
+        }
+
+        public int getSQLType() {
+            return Types.DECIMAL;
+        }
+    }
+
+    static final class ByteArrayCodec implements TypeCodec<byte[]> {
+        public void bind(PreparedStatement preparedStatement, int index, byte[] value) throws SQLException {
+            preparedStatement.setBytes(index, value);
+        }
+
+        public byte[] read(ResultSet rs, int index) throws SQLException {
+            return rs.getBytes(index);
+        }
+
+        public byte[] getDefaultValue() {
+            return null;
+        }
+
+        public int getSQLType() {
+            return Types.VARBINARY;
+        }
+    }
+
+    //UUIDs are stored in their 36 character string form
+    static final class UUIDCodec implements TypeCodec<UUID> {
+        public void bind(PreparedStatement preparedStatement, int index, UUID value) throws SQLException {
+            preparedStatement.setString(index, value.toString());
+        }
+
+        public UUID read(ResultSet rs, int index) throws SQLException {
+            String value = rs.getString(index);
+            return (value == null) ? null : UUID.fromString(value);
+        }
+
+        public UUID getDefaultValue() {
+            return null;
+        }
+
+        public int getSQLType() {
+            return Types.CHAR;
+        }
+    }
+
+    static final class LocalDateCodec implements TypeCodec<LocalDate> {
+        public void bind(PreparedStatement preparedStatement, int index, LocalDate value) throws SQLException {
+            preparedStatement.setDate(index, Date.valueOf(value));
+        }
+
+        public LocalDate read(ResultSet rs, int index) throws SQLException {
+            Date value = rs.getDate(index);
+            return (value == null) ? null : value.toLocalDate();
+        }
+
+        public LocalDate getDefaultValue() {
+            return null;
+        }
+
+        public int getSQLType() {
+            return Types.DATE;
+        }
+    }
+
+    static final class LocalTimeCodec implements TypeCodec<LocalTime> {
+        public void bind(PreparedStatement preparedStatement, int index, LocalTime value) throws SQLException {
+            preparedStatement.setTime(index, Time.valueOf(value));
+        }
+
+        public LocalTime read(ResultSet rs, int index) throws SQLException {
+            Time value = rs.getTime(index);
+            return (value == null) ? null : value.toLocalTime();
+        }
+
+        public LocalTime getDefaultValue() {
+            return null;
+        }
+
+        public int getSQLType() {
+            return Types.TIME;
+        }
+    }
+
+    static final class LocalDateTimeCodec implements TypeCodec<LocalDateTime> {
+        public void bind(PreparedStatement preparedStatement, int index, LocalDateTime value) throws SQLException {
+            preparedStatement.setTimestamp(index, Timestamp.valueOf(value));
+        }
+
+        public LocalDateTime read(ResultSet rs, int index) throws SQLException {
+            Timestamp value = rs.getTimestamp(index);
+            return (value == null) ? null : value.toLocalDateTime();
+        }
+
+        public LocalDateTime getDefaultValue() {
+            return null;
+        }
+
+        public int getSQLType() {
+            return Types.TIMESTAMP;
+        }
+    }
+
+    static final class InstantCodec implements TypeCodec<Instant> {
+        public void bind(PreparedStatement preparedStatement, int index, Instant value) throws SQLException {
+            preparedStatement.setTimestamp(index, Timestamp.from(value));
+        }
+
+        public Instant read(ResultSet rs, int index) throws SQLException {
+            Timestamp value = rs.getTimestamp(index);
+            return (value == null) ? null : value.toInstant();
+        }
+
+        public Instant getDefaultValue() {
+            return null;
+        }
+
+        public int getSQLType() {
+            return Types.TIMESTAMP;
+        }
+    }
+
+    //Enums are stored by constant name
+    static final class EnumCodec<E extends Enum<E>> implements TypeCodec<E> {
+        private final Class<E> enumClass;
+
+        EnumCodec(Class<E> enumClass) {
+            this.enumClass = enumClass;
+        }
+
+        public void bind(PreparedStatement preparedStatement, int index, E value) throws SQLException {
+            preparedStatement.setString(index, value.name());
+        }
+
+        public E read(ResultSet rs, int index) throws SQLException {
+            String value = rs.getString(index);
+            return (value == null) ? null : Enum.valueOf(enumClass, value);
+        }
+
+        public E getDefaultValue() {
+            return null;
+        }
+
+        public int getSQLType() {
+            return Types.VARCHAR;
+        }
+    }
+}
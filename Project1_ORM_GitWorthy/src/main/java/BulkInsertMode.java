@@ -0,0 +1,9 @@
+//Enum of the ways Repository.createAll can send many rows to the database
+public enum BulkInsertMode {
+    //One INSERT per object, sent in groups with addBatch/executeBatch
+    JDBC_BATCH,
+
+    //One INSERT ... VALUES (..), (..), ... statement per group of objects, sized to stay under the server's packet and
+    //placeholder limits; on MariaDB this is usually the faster mode for wide bulk loads
+    MULTI_ROW_VALUES
+}
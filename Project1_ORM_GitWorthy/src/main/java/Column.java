@@ -5,12 +5,20 @@ import Annotations.Setter;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 //Class that holds information pertaining to how a given field in a Java class relates to a SQL database table
 //Such as the field name as found in the database table, the hash of that name for rapid lookup/comparison, and
 //public getter/setter methods that are connected to the field
+//The getter/setter methods are also held as pre-linked accessors, which are what the ORM calls on the per-row path;
+//columns with primitive fields also get a PrimitiveAccessor, so binding and reading them does not box their values
 public class Column {
     //Member variables
     private String fieldName;
@@ -18,6 +26,13 @@ public class Column {
     private Field property;
     private Method getter;
     private Method setter;
+    private Function<Object, Object> getterAccessor;
+    private BiConsumer<Object, Object> setterAccessor;
+    private TypeCodec<Object> codec;
+    private PrimitiveAccessor primitiveAccessor;
+
+    //Boolean that tells whether the column is shared entity metadata that may no longer be modified
+    private boolean locked;
 
     //No args constructor
     public Column() {
@@ -28,16 +43,16 @@ public class Column {
     //Constructor with field name and field object parameters
     public Column(String fieldName, Field property) {
         this.fieldName = fieldName;
-        this.property = property;
+        this.setProperty(property);
         this.setFieldHash();
     }
 
     //Constructor with all settable fields as parameters
     public Column(String fieldName, Field property, Method getter, Method setter) {
         this.fieldName = fieldName;
-        this.property = property;
-        this.getter = getter;
-        this.setter = setter;
+        this.setProperty(property);
+        this.setGetter(getter);
+        this.setSetter(setter);
         this.setFieldHash();
     }
 
@@ -62,8 +77,22 @@ public class Column {
         return setter;
     }
 
+    public TypeCodec<Object> getCodec() {
+        return codec;
+    }
+
+    public boolean isLocked() {
+        return locked;
+    }
+
+    //Method to lock this column against further modification - setters have no effect afterward
+    public void lock() {
+        this.locked = true;
+    }
+
     //Changes to field name always also set the field hash to a new value corresponding to the name
     public void setFieldName(String fieldName) {
+        if (locked) return;
         this.fieldName = fieldName;
         this.setFieldHash();
     }
@@ -73,16 +102,75 @@ public class Column {
         this.fieldHash = this.fieldName.hashCode();
     }
 
+    //Changes to the property also resolve the codec for the property's type
     public void setProperty(Field property) {
+        if (locked) return;
         this.property = property;
+        this.codec = (property == null) ? null : TypeCodecRegistry.getCodec(property.getType());
+        this.primitiveAccessor = PrimitiveAccessor.forColumn(property, getter, setter);
     }
 
+    //Changes to the getter/setter methods also link new accessors for them
     public void setGetter(Method getter) {
+        if (locked) return;
         this.getter = getter;
+        this.getterAccessor = ColumnAccessorFactory.makeGetter(getter);
+        this.primitiveAccessor = PrimitiveAccessor.forColumn(property, getter, setter);
     }
 
     public void setSetter(Method setter) {
+        if (locked) return;
         this.setter = setter;
+        this.setterAccessor = ColumnAccessorFactory.makeSetter(setter);
+        this.primitiveAccessor = PrimitiveAccessor.forColumn(property, getter, setter);
+    }
+
+    //Method to call this column's getter on a given object through its pre-linked accessor
+    public Object getValue(Object o) {
+        return getterAccessor.apply(o);
+    }
+
+    //Method to call this column's setter on a given object through its pre-linked accessor
+    public void setValue(Object o, Object value) {
+        setterAccessor.accept(o, value);
+    }
+
+    //Method to return whether this column's field has a primitive type
+    public boolean isPrimitive() {
+        return property != null && property.getType().isPrimitive();
+    }
+
+    //Method to bind this column's value on a given object to a statement parameter, without boxing it if the field is
+    //primitive; returns false if the column's type is not supported
+    public boolean bind(PreparedStatement preparedStatement, int index, Object o) throws SQLException {
+        if (primitiveAccessor != null && primitiveAccessor.hasGetter()) {
+            primitiveAccessor.bind(preparedStatement, index, o);
+            return true;
+        }
+
+        return SQLPreparedStatementScriptor.setIndividualParameter(index, this.getValue(o), codec, preparedStatement) != null;
+    }
+
+    //Method to read this column's value from a result set, returning null for SQL NULL except for primitive fields,
+    //which read SQL NULL as their codec's default value (zero/false) since they cannot hold null
+    public Object readValue(ResultSet rs, int index) throws SQLException {
+        if (codec == null) {
+            return null;
+        }
+
+        Object value = codec.read(rs, index);
+        return (value == null && this.isPrimitive()) ? codec.getDefaultValue() : value;
+    }
+
+    //Method to read this column's value from a result set into a given object, without boxing it if the field is
+    //primitive
+    public void read(ResultSet rs, int index, Object o) throws SQLException {
+        if (primitiveAccessor != null && primitiveAccessor.hasSetter()) {
+            primitiveAccessor.read(rs, index, o);
+        }
+        else {
+            this.setValue(o, this.readValue(rs, index));
+        }
     }
 
     //Method to return a field's potential getter name depending on the name of the field in the java class
@@ -102,7 +190,7 @@ public class Column {
         char firstLetterCapitalized = Character.toUpperCase(javaFieldName.charAt(0));
 
         //If the property is of type boolean, start getter name with "is"; otherwise, start with "get"
-        if (this.getProperty().getType() == Boolean.class) {
+        if (this.getProperty().getType() == Boolean.class || this.getProperty().getType() == boolean.class) {
             potentialGetterName = "is" + firstLetterCapitalized;
         }
         else {
@@ -204,6 +292,39 @@ public class Column {
         return potentialSetters;
     }
 
+    //Method to return the same potential getters as getPotentialGetter(Method[]), but out of a class's methods indexed
+    //once by Getter annotation field name and by method name, so looking up every column is not O(fields x methods)
+    public List<Method> getPotentialGetter(Map<String, Method> annotatedGetters, Map<String, List<Method>> methodsByName) {
+        return getPotentialMethods(annotatedGetters, methodsByName, this.potentialGetterName());
+    }
+
+    //Method to return the same potential setters as getPotentialSetter(Method[]) out of indexed methods
+    public List<Method> getPotentialSetter(Map<String, Method> annotatedSetters, Map<String, List<Method>> methodsByName) {
+        return getPotentialMethods(annotatedSetters, methodsByName, this.potentialSetterName());
+    }
+
+    //Method to look up an annotated method for this field, falling back to methods with the conventional name
+    private List<Method> getPotentialMethods(Map<String, Method> annotatedMethods, Map<String, List<Method>> methodsByName,
+                                             String conventionalName) {
+        //Create new list to be filled and returned
+        List<Method> potentialMethods = new ArrayList<>();
+
+        //Return the list with only the annotated method if found
+        Method annotatedMethod = annotatedMethods.get(this.getFieldName());
+        if (annotatedMethod != null) {
+            potentialMethods.add(annotatedMethod);
+            return potentialMethods;
+        }
+
+        //Add any methods that match the conventional method name
+        List<Method> namedMethods = methodsByName.get(conventionalName);
+        if (namedMethods != null) {
+            potentialMethods.addAll(namedMethods);
+        }
+
+        return potentialMethods;
+    }
+
     //Method to iterate through a list of given methods and return the first one that matches the standards to be a
     //getter for this field, i.e. having no parameters and having the same return type as this field
     public Method getValidGetter(List<Method> methods) {
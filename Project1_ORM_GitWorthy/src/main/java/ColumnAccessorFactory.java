@@ -0,0 +1,97 @@
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+//Class that turns a column's reflected getter/setter Methods into pre-linked accessors
+//Accessors are spun up with LambdaMetafactory so that calls compile down to a direct, inlinable invocation of the
+//getter/setter; if the metafactory cannot link the method (e.g. the entity class is not visible from this class
+//loader) a MethodHandle adapted to Object types is used instead
+//Either way exceptions thrown by the getter/setter propagate unwrapped, instead of inside InvocationTargetException
+public class ColumnAccessorFactory {
+    //Lookup used to unreflect getter/setter methods and define the lambda classes
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    //Erased types of the functional interface methods being implemented
+    private static final MethodType getterSamType = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType setterSamType = MethodType.methodType(void.class, Object.class, Object.class);
+
+    //Empty constructor
+    private ColumnAccessorFactory() { }
+
+    //Method that returns a Function calling the given getter on its argument, or null if the getter is null
+    @SuppressWarnings("unchecked")
+    public static Function<Object, Object> makeGetter(Method getter) {
+        if (getter == null) {
+            return null;
+        }
+
+        MethodHandle handle;
+        try {
+            handle = lookup.unreflect(getter);
+        } catch (IllegalAccessException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            return null;
+        }
+
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(Function.class), getterSamType, handle, handle.type().wrap());
+            return (Function<Object, Object>) callSite.getTarget().invokeExact();
+        } catch (Throwable t) {
+            //Fall back to invoking the method handle directly
+            MethodHandle genericHandle = handle.asType(getterSamType);
+            return o -> {
+                try {
+                    return genericHandle.invokeExact(o);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        }
+    }
+
+    //Method that returns a BiConsumer calling the given setter on its first argument with its second argument, or
+    //null if the setter is null
+    @SuppressWarnings("unchecked")
+    public static BiConsumer<Object, Object> makeSetter(Method setter) {
+        if (setter == null) {
+            return null;
+        }
+
+        MethodHandle handle;
+        try {
+            handle = lookup.unreflect(setter);
+        } catch (IllegalAccessException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            return null;
+        }
+
+        try {
+            //Parameter types are wrapped so that primitive setters unbox their argument; the setter's return value,
+            //if any, is dropped
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class), setterSamType, handle,
+                    handle.type().wrap().changeReturnType(void.class));
+            return (BiConsumer<Object, Object>) callSite.getTarget().invokeExact();
+        } catch (Throwable t) {
+            //Fall back to invoking the method handle directly
+            MethodHandle genericHandle = handle.asType(setterSamType);
+            return (o, value) -> {
+                try {
+                    genericHandle.invokeExact(o, value);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        }
+    }
+}
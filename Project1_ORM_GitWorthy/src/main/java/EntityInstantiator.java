@@ -0,0 +1,241 @@
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.function.Supplier;
+
+//Class that creates new instances of an entity for rows read from a result set
+//The first of these that an entity has is used, linked once into a MethodHandle or Supplier:
+// -For entities with no column setters (e.g. records), a public constructor or static factory method taking every
+//  column in field declaration order (e.g. a record's canonical constructor), which builds the whole row in one call
+// -A method with the FakeConstructor annotation, called on a prototype instance
+// -A public no args constructor or static factory method
+// -For entities with setters, an all-columns constructor or factory whose parameter names are the Java field names,
+//  which needs the class to be compiled with -parameters
+//Mutable entities are filled in through their setters wherever they can be, so Repository.read(o) keeps filling in the
+//object it was given. When compiled with -parameters, all-columns constructors and factories must always use the Java
+//field names as their parameter names, which rules out ones that take same-typed columns in a different order
+public final class EntityInstantiator {
+    //Lookup used to unreflect constructors and factories and define the Supplier classes
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    //Member variables
+    private final String description;
+
+    //Handle taking every column value as an Object[] for all-columns instantiation, otherwise null
+    private final MethodHandle allColumnsHandle;
+
+    //Handle taking the prototype instance for fake constructors, otherwise null
+    private final MethodHandle fakeConstructorHandle;
+
+    //Supplier calling a no args constructor or factory, otherwise null
+    private final Supplier<Object> noArgsSupplier;
+
+    private EntityInstantiator(String description, MethodHandle allColumnsHandle, MethodHandle fakeConstructorHandle,
+                               Supplier<Object> noArgsSupplier) {
+        this.description = description;
+        this.allColumnsHandle = allColumnsHandle;
+        this.fakeConstructorHandle = fakeConstructorHandle;
+        this.noArgsSupplier = noArgsSupplier;
+    }
+
+    //Method that finds how to instantiate a given entity class with the given columns, returning null if it has no
+    //usable constructor, factory or fake constructor
+    public static EntityInstantiator forClass(Class<?> entityClass, Table table, Method fakeConstructor) {
+        if (Modifier.isAbstract(entityClass.getModifiers())) {
+            return null;
+        }
+
+        //Entities with no setters can only be built from all of their columns, so look for that first
+        boolean hasSetters = hasSetters(table);
+        if (!hasSetters) {
+            EntityInstantiator instantiator = findAllColumns(entityClass, table, false);
+            if (instantiator != null) {
+                return instantiator;
+            }
+        }
+
+        //Use the fake constructor if there is one, as the ORM always has
+        if (fakeConstructor != null) {
+            try {
+                MethodHandle handle = lookup.unreflect(fakeConstructor).asType(MethodType.methodType(Object.class, Object.class));
+                return new EntityInstantiator("fake constructor " + fakeConstructor.getName(), null, handle, null);
+            } catch (IllegalAccessException e) {
+                ORMExceptionLogger.getExceptionLogger().log(e);
+            }
+        }
+
+        //Look for a no args constructor, then a no args static factory
+        try {
+            Constructor<?> constructor = entityClass.getConstructor();
+            return noArgs(lookup.unreflectConstructor(constructor), entityClass, "no args constructor");
+        } catch (NoSuchMethodException e) {
+            //The class has no public no args constructor - fall through to the factories
+        } catch (IllegalAccessException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+        }
+
+        for (Method m : entityClass.getMethods()) {
+            if (isStaticFactory(entityClass, m) && m.getParameterCount() == 0) {
+                try {
+                    return noArgs(lookup.unreflect(m), entityClass, "factory " + m.getName());
+                } catch (IllegalAccessException e) {
+                    ORMExceptionLogger.getExceptionLogger().log(e);
+                }
+            }
+        }
+
+        //Fall back on an all-columns constructor or factory for mutable entities, but only when its parameter names
+        //show which column goes where
+        return hasSetters ? findAllColumns(entityClass, table, true) : null;
+    }
+
+    //Method to return whether rows are instantiated in one call from every column's value, in which case the values are
+    //passed to newInstance(Object[]) rather than set on an instance from newInstance(Object)
+    public boolean isAllColumns() {
+        return allColumnsHandle != null;
+    }
+
+    //Method to create an instance from the value of every column of the entity's table, in column order
+    public Object newInstance(Object[] values) {
+        try {
+            return allColumnsHandle.invokeExact(values);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //Method to create an empty instance to set column values on, using a prototype instance for fake constructors
+    public Object newInstance(Object prototype) {
+        if (noArgsSupplier != null) {
+            return noArgsSupplier.get();
+        }
+
+        try {
+            return fakeConstructorHandle.invokeExact(prototype);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //Method to return whether a method is a public static method returning the entity class
+    private static boolean isStaticFactory(Class<?> entityClass, Method m) {
+        return Modifier.isStatic(m.getModifiers()) && m.getReturnType() == entityClass;
+    }
+
+    //Method to return whether any of the table's columns has a setter
+    private static boolean hasSetters(Table table) {
+        for (int i = 0; i < table.size(); i++) {
+            if (table.get(i).hasValidSetter()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //Method to find an all-columns constructor, then an all-columns static factory, returning null if there is neither
+    private static EntityInstantiator findAllColumns(Class<?> entityClass, Table table, boolean namesRequired) {
+        if (table.size() == 0) {
+            return null;
+        }
+
+        for (Constructor<?> constructor : entityClass.getConstructors()) {
+            if (takesAllColumns(constructor, table, namesRequired)) {
+                return allColumns(constructor, "constructor");
+            }
+        }
+
+        for (Method m : entityClass.getMethods()) {
+            if (isStaticFactory(entityClass, m) && takesAllColumns(m, table, namesRequired)) {
+                return allColumns(m, "factory " + m.getName());
+            }
+        }
+
+        return null;
+    }
+
+    //Method to return whether a constructor or factory takes exactly the table's columns, in order
+    //Parameter names are compared when they are present; without them only types and positions can be compared, which
+    //is not accepted when names are required
+    private static boolean takesAllColumns(Executable executable, Table table, boolean namesRequired) {
+        Parameter[] parameters = executable.getParameters();
+
+        if (parameters.length != table.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < parameters.length; i++) {
+            Column column = table.get(i);
+
+            if (parameters[i].getType() != column.getProperty().getType()) {
+                return false;
+            }
+            if (namesRequired && !parameters[i].isNamePresent()) {
+                return false;
+            }
+            if (parameters[i].isNamePresent() && !parameters[i].getName().equals(column.getProperty().getName())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    //Method to create an instantiator spreading an Object[] of column values over a constructor or factory's parameters
+    private static EntityInstantiator allColumns(Executable executable, String description) {
+        try {
+            MethodHandle handle = (executable instanceof Constructor)
+                    ? lookup.unreflectConstructor((Constructor<?>) executable)
+                    : lookup.unreflect((Method) executable);
+
+            handle = handle.asSpreader(Object[].class, executable.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+
+            return new EntityInstantiator("all-columns " + description, handle, null, null);
+        } catch (IllegalAccessException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            return null;
+        }
+    }
+
+    //Method to create an instantiator calling a no args constructor or factory through a Supplier, spun up with
+    //LambdaMetafactory like the column accessors, or through the method handle if that fails
+    @SuppressWarnings("unchecked")
+    private static EntityInstantiator noArgs(MethodHandle handle, Class<?> entityClass, String description) {
+        Supplier<Object> supplier;
+
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class), handle, MethodType.methodType(entityClass));
+            supplier = (Supplier<Object>) callSite.getTarget().invokeExact();
+        } catch (Throwable t) {
+            MethodHandle genericHandle = handle.asType(MethodType.methodType(Object.class));
+            supplier = () -> {
+                try {
+                    return genericHandle.invokeExact();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        }
+
+        return new EntityInstantiator(description, null, null, supplier);
+    }
+
+    @Override
+    public String toString() {
+        return "Instantiator: " + description;
+    }
+}
@@ -0,0 +1,80 @@
+import Mapping.EntityMapper;
+
+//Class that finds the generated EntityMapper for an entity class
+//A mapper is only used if it was generated from the same mapping as the entity's runtime metadata - i.e. all of its
+//SQL matches the SQLPlan - and every column uses a built-in codec, as generated binders bind those types directly;
+//otherwise the repository keeps using the reflected column accessors
+public class EntityMappers {
+    //Suffix the processor appends to an entity's class name to name its mapper
+    public static final String MAPPER_SUFFIX = "_Mapper";
+
+    //Whether generated mappers are looked up at all; running with -Dorm.mappers=false makes every repository use
+    //reflection, e.g. to compare the two
+    private static final boolean enabled = !"false".equalsIgnoreCase(System.getProperty("orm.mappers"));
+
+    //Empty constructor
+    private EntityMappers() { }
+
+    //Method to return the generated mapper for an entity's metadata and plan, or null if there is no usable mapper
+    @SuppressWarnings("unchecked")
+    public static EntityMapper<Object> findMapper(EntityMetadata metadata, SQLPlan sqlPlan) {
+        if (!enabled) {
+            return null;
+        }
+
+        Class<?> entityClass = metadata.getEntityClass();
+        Class<?> mapperClass;
+
+        //Load the mapper from the entity's class loader; most entities will not have one
+        try {
+            mapperClass = Class.forName(entityClass.getName() + MAPPER_SUFFIX, true, entityClass.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+
+        EntityMapper<Object> mapper;
+        try {
+            if (!EntityMapper.class.isAssignableFrom(mapperClass)) {
+                return null;
+            }
+
+            mapper = (EntityMapper<Object>) mapperClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            return null;
+        }
+
+        if (mapper.getEntityClass() != entityClass || !matchesPlan(mapper, sqlPlan) || !usesBuiltInCodecs(metadata.getTable())) {
+            ORMTracer.trace(ORMTracer.Level.INFO, "Ignoring out of date or unsupported mapper {}", mapperClass.getName());
+            return null;
+        }
+
+        ORMTracer.trace(ORMTracer.Level.DEBUG, "Using generated mapper {}", mapperClass.getName());
+        return mapper;
+    }
+
+    //Method to return whether a mapper's SQL is the same as a plan's, which means it binds and reads the same columns
+    //in the same order
+    private static boolean matchesPlan(EntityMapper<?> mapper, SQLPlan sqlPlan) {
+        return mapper.getCreateSQL().equals(sqlPlan.getCreateSQL())
+                && mapper.getReadSQL().equals(sqlPlan.getReadSQL())
+                && mapper.getReadAllSQL().equals(sqlPlan.getReadAllSQL())
+                && mapper.getReadAllPKsSQL().equals(sqlPlan.getReadAllPKsSQL())
+                && mapper.getUpdateSQL().equals(sqlPlan.getUpdateSQL())
+                && mapper.getDeleteSQL().equals(sqlPlan.getDeleteSQL());
+    }
+
+    //Method to return whether every column of a table uses one of BuiltInTypeCodecs' codecs, i.e. no custom codec has
+    //been registered over a type the mapper binds directly
+    private static boolean usesBuiltInCodecs(Table table) {
+        for (Column column : table.getColumns()) {
+            TypeCodec<Object> codec = column.getCodec();
+
+            if (codec == null || codec.getClass().getEnclosingClass() != BuiltInTypeCodecs.class) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
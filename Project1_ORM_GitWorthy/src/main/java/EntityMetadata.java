@@ -0,0 +1,210 @@
+import Annotations.Entity;
+import Annotations.FakeConstructor;
+import Annotations.Getter;
+import Annotations.Property;
+import Annotations.Setter;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Class that holds everything the ORM discovers about an entity class through reflection: its table, the sub tables of
+//columns with valid getters/setters, how to instantiate it and its SQL plan
+//Metadata is built once per class by EntityMetadataRegistry and shared by every repository for that class, so the
+//tables and columns it holds are locked against modification
+public final class EntityMetadata {
+    //Member variables
+    private final Class<?> entityClass;
+    private final boolean entity;
+    private final Table table;
+    private final Table validGetterFields;
+    private final Table validSetterFields;
+    private final Table readableFields;
+    private final Table writableFields;
+    private final Method fakeConstructor;
+    private final EntityInstantiator instantiator;
+    private final boolean filledInPlace;
+    private final SQLPlan sqlPlan;
+
+    //Constructor that runs the reflection for a given class - use EntityMetadataRegistry.getMetadata instead of
+    //calling this directly
+    EntityMetadata(Class<?> entityClass) {
+        this.entityClass = entityClass;
+
+        //Start by checking that the class has the Entity annotation
+        if (!entityClass.isAnnotationPresent(Entity.class)) {
+            System.out.println("Class not entity.");
+            this.entity = false;
+            this.table = null;
+            this.validGetterFields = null;
+            this.validSetterFields = null;
+            this.readableFields = null;
+            this.writableFields = null;
+            this.fakeConstructor = null;
+            this.instantiator = null;
+            this.filledInPlace = false;
+            this.sqlPlan = null;
+            return;
+        }
+
+        this.entity = true;
+
+        //Get class methods once and build the table and its sub tables from them
+        Method[] methods = entityClass.getMethods();
+
+        this.table = buildTable(entityClass, methods);
+        this.validGetterFields = table.getValidGetterFields();
+        this.validSetterFields = table.getValidSetterFields();
+        this.writableFields = validGetterFields.getWriteableFields();
+        this.fakeConstructor = findFakeConstructor(entityClass, methods);
+        this.instantiator = EntityInstantiator.forClass(entityClass, table, fakeConstructor);
+
+        //Entities built from every column in one call read every column, whether or not it has a setter
+        this.readableFields = (instantiator != null && instantiator.isAllColumns()) ? table : validSetterFields;
+
+        //Objects passed in to be read into are filled in through the setters whenever every read column has one
+        this.filledInPlace = readableFields.size() == validSetterFields.size();
+
+        //Lock the shared tables and their columns now that they are complete
+        table.lock();
+        validGetterFields.lock();
+        validSetterFields.lock();
+        writableFields.lock();
+
+        //The SQL plan is built last as it reads the completed sub tables
+        this.sqlPlan = new SQLPlan(this);
+    }
+
+    //Getter methods
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+
+    public boolean isEntity() {
+        return entity;
+    }
+
+    public String getTableName() {
+        return table.getTableName();
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public Table getValidGetterFields() {
+        return validGetterFields;
+    }
+
+    public Table getValidSetterFields() {
+        return validSetterFields;
+    }
+
+    public Table getReadableFields() {
+        return readableFields;
+    }
+
+    public Table getWritableFields() {
+        return writableFields;
+    }
+
+    public Method getFakeConstructor() {
+        return fakeConstructor;
+    }
+
+    public EntityInstantiator getInstantiator() {
+        return instantiator;
+    }
+
+    //Method to return whether a row can be read into an existing object, rather than only into a new one built from
+    //all of its columns
+    public boolean isFilledInPlace() {
+        return filledInPlace;
+    }
+
+    public SQLPlan getSqlPlan() {
+        return sqlPlan;
+    }
+
+    //Method to test whether a given Method is a valid fake constructor for a given class - i.e. it returns the class
+    //type and has no parameters
+    public static boolean isValidFakeConstructor(Class<?> entityClass, Method m) {
+        return m.getParameterTypes().length == 0 && entityClass == m.getReturnType();
+    }
+
+    //Method to create a Table of columns for every field with the Property annotation, along with valid getter and
+    //setter methods for those fields
+    private static Table buildTable(Class<?> entityClass, Method[] methods) {
+        //Create and populate a Table object with Columns
+        Table table = new Table(entityClass.getAnnotation(Entity.class).tableName());
+
+        for (Field f : entityClass.getDeclaredFields()) {
+            //Check that the field has the Property annotation
+            if (f.isAnnotationPresent(Property.class)) {
+                //Attempt to add column to table
+                table.add(new Column(f.getAnnotation(Property.class).fieldName(), f));
+            }
+        }
+
+        //Index the methods once by name and by Getter/Setter annotation field name, so each column's lookup does not
+        //scan every method of the class
+        Map<String, List<Method>> methodsByName = new HashMap<>();
+        Map<String, Method> annotatedGetters = new HashMap<>();
+        Map<String, Method> annotatedSetters = new HashMap<>();
+
+        for (Method m : methods) {
+            methodsByName.computeIfAbsent(m.getName(), name -> new ArrayList<>()).add(m);
+
+            if (m.isAnnotationPresent(Getter.class)) {
+                annotatedGetters.putIfAbsent(m.getAnnotation(Getter.class).fieldName(), m);
+            }
+            if (m.isAnnotationPresent(Setter.class)) {
+                annotatedSetters.putIfAbsent(m.getAnnotation(Setter.class).fieldName(), m);
+            }
+        }
+
+        //Iterate through the table columns and find valid getter and setter methods appropriate for a given field
+        for (Column column : table.getColumns()) {
+            //Get a list of potential getter and setter methods, based on either use of Getter/Setter annotation or
+            // method name
+            List<Method> potentialGetterMethods = column.getPotentialGetter(annotatedGetters, methodsByName);
+            List<Method> potentialSetterMethods = column.getPotentialSetter(annotatedSetters, methodsByName);
+
+            //Set the column's getter/setter method to the first valid method out of the returned lists, if found
+            column.setGetter(column.getValidGetter(potentialGetterMethods));
+            column.setSetter(column.getValidSetter(potentialSetterMethods));
+
+            //Records have accessors named after their fields instead of getters
+            if (column.getGetter() == null && isRecord(entityClass)) {
+                List<Method> accessors = methodsByName.get(column.getProperty().getName());
+                column.setGetter((accessors == null) ? null : column.getValidGetter(accessors));
+            }
+        }
+
+        return table;
+    }
+
+    //Method to return whether a class is a record, checked by superclass so it works on JDKs older than records
+    public static boolean isRecord(Class<?> entityClass) {
+        return entityClass.getSuperclass() != null && entityClass.getSuperclass().getName().equals("java.lang.Record");
+    }
+
+    //Method to find the first method with the FakeConstructor annotation that is a valid fake constructor
+    private static Method findFakeConstructor(Class<?> entityClass, Method[] methods) {
+        for (Method m : methods) {
+            if (m.isAnnotationPresent(FakeConstructor.class) && isValidFakeConstructor(entityClass, m)) {
+                return m;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return (table == null) ? "Not an entity: " + entityClass.getName() : table.toString();
+    }
+}
@@ -0,0 +1,33 @@
+import java.util.concurrent.ConcurrentHashMap;
+
+//Class that caches the EntityMetadata of every class a repository has been created for
+//The reflection in EntityMetadata runs once per class; every later repository for that class only does a lookup
+public class EntityMetadataRegistry {
+    //Static member holding the metadata of each class, computed on first use
+    private static final ConcurrentHashMap<Class<?>, EntityMetadata> metadata = new ConcurrentHashMap<>();
+
+    //Empty constructor
+    private EntityMetadataRegistry() { }
+
+    //Method that returns the metadata for a given class, building it if this is the first request for the class
+    public static EntityMetadata getMetadata(Class<?> entityClass) {
+        //Check with a plain get first, which does not lock, as nearly every call is for a class already registered
+        EntityMetadata entityMetadata = metadata.get(entityClass);
+
+        if (entityMetadata == null) {
+            entityMetadata = metadata.computeIfAbsent(entityClass, EntityMetadata::new);
+        }
+
+        return entityMetadata;
+    }
+
+    //Method to return whether metadata has already been built for a given class
+    public static boolean isRegistered(Class<?> entityClass) {
+        return metadata.containsKey(entityClass);
+    }
+
+    //Method to drop all cached metadata, e.g. after classes have been reloaded
+    public static void clear() {
+        metadata.clear();
+    }
+}
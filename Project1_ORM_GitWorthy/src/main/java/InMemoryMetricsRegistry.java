@@ -0,0 +1,78 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+//Class that keeps the metrics of every table and operation reported to it in memory, as OperationMetrics
+//Listeners can be added to hear about each table and operation the first time it is reported, which is how
+//JMXMetricsExporter publishes new operations
+public class InMemoryMetricsRegistry implements ORMMetricsRegistry {
+    //Member variables
+    private final ConcurrentHashMap<String, OperationMetrics> metrics;
+    private final CopyOnWriteArrayList<Consumer<OperationMetrics>> listeners;
+
+    //Empty constructor
+    public InMemoryMetricsRegistry() {
+        this.metrics = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    @Override
+    public void recordOperation(String tableName, String operation, long prepareNanos, long executeNanos,
+                                long hydrateNanos, long totalNanos, long rows, boolean failed) {
+        getOperationMetrics(tableName, operation).record(prepareNanos, executeNanos, hydrateNanos, totalNanos, rows, failed);
+    }
+
+    //Method to return the metrics of one table and operation, creating them if they have not been reported yet
+    public OperationMetrics getOperationMetrics(String tableName, String operation) {
+        String key = tableName + "." + operation;
+        OperationMetrics operationMetrics = metrics.get(key);
+
+        if (operationMetrics == null) {
+            OperationMetrics created = new OperationMetrics(tableName, operation);
+            operationMetrics = metrics.putIfAbsent(key, created);
+
+            //Tell the listeners only if this call added the metrics
+            if (operationMetrics == null) {
+                operationMetrics = created;
+                for (Consumer<OperationMetrics> listener : listeners) {
+                    listener.accept(created);
+                }
+            }
+        }
+
+        return operationMetrics;
+    }
+
+    //Method to return the metrics of every table and operation reported so far
+    public Collection<OperationMetrics> getAllOperationMetrics() {
+        return new ArrayList<>(metrics.values());
+    }
+
+    //Method to add a listener called with the metrics of each new table and operation
+    public void addListener(Consumer<OperationMetrics> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<OperationMetrics> listener) {
+        listeners.remove(listener);
+    }
+
+    //Method to clear the metrics of every table and operation, keeping them registered
+    public void reset() {
+        for (OperationMetrics operationMetrics : metrics.values()) {
+            operationMetrics.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        List<String> lines = new ArrayList<>();
+        for (OperationMetrics operationMetrics : metrics.values()) {
+            lines.add(operationMetrics.toString());
+        }
+        return String.join("\n", lines);
+    }
+}
@@ -0,0 +1,73 @@
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+//Class that publishes the metrics of an InMemoryMetricsRegistry on the platform MBean server, one MBean per table and
+//operation named ORM:type=RepositoryOperation,table=<table>,operation=<operation>
+//Operations reported after the exporter is created are published as they first appear
+public class JMXMetricsExporter {
+    //Domain of the published MBeans
+    public static final String DOMAIN = "ORM";
+
+    //Member variables
+    private final InMemoryMetricsRegistry registry;
+    private final MBeanServer mBeanServer;
+    private final List<ObjectName> registeredNames;
+    private final Consumer<OperationMetrics> listener;
+
+    //Constructor taking in the registry to publish
+    private JMXMetricsExporter(InMemoryMetricsRegistry registry) {
+        this.registry = registry;
+        this.mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        this.registeredNames = new CopyOnWriteArrayList<>();
+        this.listener = this::register;
+    }
+
+    //Method to publish a registry's current and future operations, returning the exporter
+    public static JMXMetricsExporter export(InMemoryMetricsRegistry registry) {
+        JMXMetricsExporter exporter = new JMXMetricsExporter(registry);
+
+        registry.addListener(exporter.listener);
+        for (OperationMetrics operationMetrics : registry.getAllOperationMetrics()) {
+            exporter.register(operationMetrics);
+        }
+
+        return exporter;
+    }
+
+    //Method to remove every MBean this exporter published and stop publishing new operations
+    public void unregister() {
+        registry.removeListener(listener);
+
+        for (ObjectName name : registeredNames) {
+            try {
+                if (mBeanServer.isRegistered(name)) {
+                    mBeanServer.unregisterMBean(name);
+                }
+            } catch (JMException e) {
+                ORMExceptionLogger.getExceptionLogger().log(e);
+            }
+        }
+        registeredNames.clear();
+    }
+
+    //Method to publish the metrics of one table and operation
+    private void register(OperationMetrics operationMetrics) {
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":type=RepositoryOperation,table=" +
+                    ObjectName.quote(String.valueOf(operationMetrics.getTableName())) + ",operation=" +
+                    ObjectName.quote(operationMetrics.getOperation()));
+
+            if (!mBeanServer.isRegistered(name)) {
+                mBeanServer.registerMBean(operationMetrics, name);
+                registeredNames.add(name);
+            }
+        } catch (JMException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package Mapping;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+//Interface implemented by the <Entity>_Mapper classes that Processors.EntityMapperProcessor generates at compile time
+//A mapper holds an entity's SQL as constants and binds/reads its columns with direct getter and setter calls, so
+//repositories do not go through reflected accessors and codec lookups on every row
+//Parameters and columns are in the same order as the entity's SQLPlan: write columns for INSERT and the UPDATE SET
+//clause, then the primary key, and read columns in select list order
+public interface EntityMapper<O> {
+    Class<O> getEntityClass();
+
+    //SQL statements, identical to the ones SQLStringScriptor generates for the entity
+    String getCreateSQL();
+
+    String getReadSQL();
+
+    String getReadAllSQL();
+
+    String getReadAllPKsSQL();
+
+    String getUpdateSQL();
+
+    String getDeleteSQL();
+
+    //Method to create an empty entity with its fake constructor (or no args constructor), using a given instance as the
+    //receiver; returns null if the entity has neither
+    O newInstance(O prototype);
+
+    //Method to bind an entity's write columns to parameters 1 through the number of write columns
+    void bindCreate(PreparedStatement preparedStatement, O o) throws SQLException;
+
+    //Method to bind an entity's write columns followed by its primary key in the WHERE clause
+    void bindUpdate(PreparedStatement preparedStatement, O o) throws SQLException;
+
+    //Method to bind an entity's primary key to a given parameter
+    void bindPrimaryKey(PreparedStatement preparedStatement, int index, O o) throws SQLException;
+
+    //Method to read the read columns of the current row, at indexes 1 through the number of read columns, into an entity
+    O hydrate(ResultSet rs, O o) throws SQLException;
+}
@@ -4,123 +4,191 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
-//Class that manages repository connection to SQL database
+//Class that manages repository connections to SQL databases
+//Connections are handed out by one ORMConnectionPool per connection string, so repositories that connect to a
+//different database get their own pool instead of swapping out the connection used by every other repository
 public class ORMConnectionManager {
-    //Static member holding Connection object
-    private static Connection connection;
+    //Static member holding one connection pool per full connection string
+    private static final ConcurrentHashMap<String, ORMConnectionPool> connectionPools = new ConcurrentHashMap<>();
+
+    //Static member holding the connection string read from jdbc.properties, once it has been read
+    private static volatile String defaultConnectionString;
 
     //Empty constructor
     private ORMConnectionManager() { }
 
-    //Function that instantiates connection variable if it is null and returns it
-    public static Connection getConnection() {
-        if (connection == null) {
-            connection = connect();
+    //Method that returns the pool for the database described in src/main/resources/jdbc.properties
+    //Returns null if the properties file could not be read
+    public static ORMConnectionPool getConnectionPool() {
+        if (defaultConnectionString == null) {
+            defaultConnectionString = getConnectionString();
+        }
+
+        if (defaultConnectionString == null) {
+            return null;
         }
 
-        return connection;
+        return getConnectionPool(defaultConnectionString);
     }
 
-    //Method that instantiates connection variable with given full connection string
-    public static Connection getConnection(String connectionString) {
-        connection = connect(connectionString);
+    //Method that returns the pool for a given full connection string, creating it on first use
+    public static ORMConnectionPool getConnectionPool(String connectionString) {
+        ORMConnectionPool pool = connectionPools.get(connectionString);
+
+        if (pool == null) {
+            ORMConnectionPool newPool = createConnectionPool(connectionString);
+            pool = connectionPools.putIfAbsent(connectionString, newPool);
+
+            //Keep the new pool only if no other thread registered one for the same connection string first
+            if (pool == null) {
+                pool = newPool;
+                fillToMinimum(pool);
+            }
+            else {
+                newPool.close();
+            }
+        }
 
-        return connection;
+        return pool;
     }
 
-    //Method that instantiates connection variable with given parts to connection string if it is null
-    public static Connection getConnection(String hostname, String port, String dbname, String username, String password) {
-        connection = connect(hostname, port, dbname, username, password);
+    //Method that returns the pool for given parts to a connection string, creating it on first use
+    public static ORMConnectionPool getConnectionPool(String hostname, String port, String dbname, String username, String password) {
+        return getConnectionPool(makeConnectionString(hostname, port, dbname, username, password));
+    }
 
-        return connection;
+    //Method that borrows a connection from the default pool - the connection must be closed to return it to the pool
+    public static PooledConnection getConnection() {
+        return borrowFrom(getConnectionPool());
     }
 
-    //Method that attempts to return a valid connection using the data found in src/main/resources/jdbc.properties
-    private static Connection connect() {
-        try {
-            Properties props = new Properties();
-            ClassLoader loader = Thread.currentThread().getContextClassLoader();
-            InputStream input = loader.getResourceAsStream("jdbc.properties");
-            props.load(input);
-/*
-            FileReader fr = new FileReader("src/main/resources/jdbc.properties");
-            props.load(fr);
-*/
-            String connectionString = "jdbc:mariadb://" +
-                    props.getProperty("hostname") + ":" +
-                    props.getProperty("port") + "/" +
-                    props.getProperty("dbname") + "?user=" +
-                    props.getProperty("username") + "&password=" +
-                    props.getProperty("password");
-
-            connection = DriverManager.getConnection(connectionString);
-        } catch (IOException | SQLException e) {
-            e.printStackTrace();
-        }
+    //Method that borrows a connection from the pool for a given full connection string
+    public static PooledConnection getConnection(String connectionString) {
+        return borrowFrom(getConnectionPool(connectionString));
+    }
 
-        return connection;
+    //Method that borrows a connection from the pool for given parts to a connection string
+    public static PooledConnection getConnection(String hostname, String port, String dbname, String username, String password) {
+        return borrowFrom(getConnectionPool(hostname, port, dbname, username, password));
     }
 
-    //Method that attempts to return a valid connection using a given full connection string
+    //Method that attempts to return a new, unpooled connection using a given full connection string
     public static Connection connect(String connectionString) {
         try {
-            connection = DriverManager.getConnection(connectionString);
+            return DriverManager.getConnection(connectionString);
         } catch (SQLException e) {
             e.printStackTrace();
         }
 
-        return connection;
+        return null;
     }
 
-    //Method that attempts to return a valid connection using given parts to connection string
+    //Method that attempts to return a new, unpooled connection using given parts to connection string
     public static Connection connect(String hostname, String port, String dbname, String username, String password) {
-        try {
-            String connectionString = "jdbc:mariadb://" + hostname + ":" + port + "/" + dbname +
-                    "?user=" + username + "&password=" + password;
+        return connect(makeConnectionString(hostname, port, dbname, username, password));
+    }
 
-            connection = DriverManager.getConnection(connectionString);
-        } catch (SQLException e) {
-            e.printStackTrace();
+    //Method to close every pool and the connections they hold
+    public static void closeAll() {
+        for (ORMConnectionPool pool : connectionPools.values()) {
+            pool.close();
         }
 
-        return connection;
+        connectionPools.clear();
     }
 
     //Method to read info from a given properties file path and return a String that can be used to get a database connection
     public static String getConnectionString() {
         //Create empty String and properties object
         String connectionString;
-        Properties props = new Properties();
+        Properties props = loadProperties();
+
+        //Return null if the properties file could not be read
+        if (props == null) {
+            return null;
+        }
+
+        //Set the connection string based on info found in the file
+        connectionString = makeConnectionString(props.getProperty("hostname"), props.getProperty("port"),
+                props.getProperty("dbname"), props.getProperty("username"), props.getProperty("password"));
+
+        //Return connection string
+        return connectionString;
+    }
+
+    //Method that attempts to borrow a connection from a given pool, printing the stack trace and returning null if
+    //unsuccessful
+    private static PooledConnection borrowFrom(ORMConnectionPool pool) {
+        if (pool == null) {
+            return null;
+        }
 
-        //Create file reader object to read from the properties file
-        //FileReader fr;
         try {
-            /*
-            //Attempt to open the properties file using the given file path
-            fr = new FileReader("src/main/resources/jdbc.properties");
-
-            //Read the file into the properties object
-            props.load(fr);
-*/
-            ClassLoader loader = Thread.currentThread().getContextClassLoader();
-            InputStream input = loader.getResourceAsStream("jdbc.properties");
-            props.load(input);
+            return pool.borrowConnection();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
 
-            //Set the connection string based on info found in the file
-            connectionString = "jdbc:mariadb://" +
-                    props.getProperty("hostname") + ":" +
-                    props.getProperty("port") + "/" +
-                    props.getProperty("dbname") + "?user=" +
-                    props.getProperty("username") + "&password=" +
-                    props.getProperty("password");
+        return null;
+    }
+
+    //Method that builds a new pool for a connection string, taking pool settings from jdbc.properties if present
+    private static ORMConnectionPool createConnectionPool(String connectionString) {
+        Properties props = loadProperties();
+        ORMConnectionPool pool;
+
+        if (props == null) {
+            pool = new ORMConnectionPool(connectionString);
+        }
+        else {
+            pool = new ORMConnectionPool(connectionString,
+                    Integer.parseInt(props.getProperty("minPoolSize", String.valueOf(ORMConnectionPool.DEFAULT_MIN_SIZE))),
+                    Integer.parseInt(props.getProperty("maxPoolSize", String.valueOf(ORMConnectionPool.DEFAULT_MAX_SIZE))));
+            pool.setBorrowTimeoutMillis(Long.parseLong(props.getProperty("borrowTimeout",
+                    String.valueOf(ORMConnectionPool.DEFAULT_BORROW_TIMEOUT_MILLIS))));
+            pool.setIdleTimeoutMillis(Long.parseLong(props.getProperty("idleTimeout",
+                    String.valueOf(ORMConnectionPool.DEFAULT_IDLE_TIMEOUT_MILLIS))));
+            pool.setStatementCacheSize(Integer.parseInt(props.getProperty("statementCacheSize",
+                    String.valueOf(ORMStatementCache.DEFAULT_MAX_SIZE))));
+        }
+
+        return pool;
+    }
+
+    //Method that opens the minimum number of connections of a new pool up front, as the single shared connection
+    //used to be
+    private static void fillToMinimum(ORMConnectionPool pool) {
+        try {
+            pool.fillToMinimum();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    //Method that reads src/main/resources/jdbc.properties from the classpath, returning null if it could not be read
+    private static Properties loadProperties() {
+        Properties props = new Properties();
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+        try (InputStream input = loader.getResourceAsStream("jdbc.properties")) {
+            if (input == null) {
+                return null;
+            }
+
+            props.load(input);
         } catch (IOException e) {
-            //Log any exceptions and set the connection string to null if an exception was caught
             e.printStackTrace();
-            connectionString = null;
+            return null;
         }
 
-        //Return connection string
-        return connectionString;
+        return props;
+    }
+
+    //Method that builds a full MariaDB connection string out of its parts
+    private static String makeConnectionString(String hostname, String port, String dbname, String username, String password) {
+        return "jdbc:mariadb://" + hostname + ":" + port + "/" + dbname +
+                "?user=" + username + "&password=" + password;
     }
 }
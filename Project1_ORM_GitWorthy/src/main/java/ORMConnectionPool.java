@@ -0,0 +1,405 @@
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Class that keeps a bounded set of physical connections to one SQL database
+//Repository operations borrow a connection for the duration of a single operation and return it afterward, so the
+//number of statements in flight scales with the pool size instead of being capped at one shared connection
+public class ORMConnectionPool {
+    //Default pool settings
+    public static final int DEFAULT_MIN_SIZE = 1;
+    public static final int DEFAULT_MAX_SIZE = 10;
+    public static final long DEFAULT_BORROW_TIMEOUT_MILLIS = 30000;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 600000;
+    public static final int DEFAULT_VALIDATION_TIMEOUT_SECONDS = 2;
+
+    //Connections returned more recently than this are handed out again without a validation round trip
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    //Single daemon thread shared by all pools that periodically closes connections that have idled out
+    private static final ScheduledExecutorService idleEvictor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ORMConnectionPool-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    //Member variables
+    private final String connectionString;
+    private volatile int minSize;
+    private volatile int maxSize;
+    private volatile long borrowTimeoutMillis;
+    private volatile long idleTimeoutMillis;
+    private volatile int validationTimeoutSeconds;
+    private volatile int statementCacheSize;
+
+    //Lock guarding the idle list, the connection count and the closed flag
+    private final ReentrantLock lock;
+    private final Condition connectionAvailable;
+
+    //Idle connections, most recently returned first so that the least recently used ones idle out at the tail
+    private final ArrayDeque<PooledConnection> idleConnections;
+
+    //Number of connections that are idle, borrowed or currently being opened
+    private int totalConnections;
+    private boolean closed;
+
+    private final ScheduledFuture<?> evictionTask;
+
+    //Constructor taking in only a full connection string, using the default pool settings
+    public ORMConnectionPool(String connectionString) {
+        this(connectionString, DEFAULT_MIN_SIZE, DEFAULT_MAX_SIZE);
+    }
+
+    //Constructor taking in a full connection string and the minimum/maximum number of connections
+    public ORMConnectionPool(String connectionString, int minSize, int maxSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min " + minSize + ", max " + maxSize);
+        }
+
+        this.connectionString = connectionString;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = DEFAULT_BORROW_TIMEOUT_MILLIS;
+        this.idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+        this.validationTimeoutSeconds = DEFAULT_VALIDATION_TIMEOUT_SECONDS;
+        this.statementCacheSize = ORMStatementCache.DEFAULT_MAX_SIZE;
+
+        this.lock = new ReentrantLock();
+        this.connectionAvailable = lock.newCondition();
+        this.idleConnections = new ArrayDeque<>();
+        this.totalConnections = 0;
+        this.closed = false;
+
+        this.evictionTask = idleEvictor.scheduleWithFixedDelay(this::evictIdleConnections, 30, 30, TimeUnit.SECONDS);
+    }
+
+    //POJO getter/setter methods
+    public String getConnectionString() {
+        return connectionString;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+
+    //Raising the maximum size wakes up any threads waiting on a full pool
+    public void setMaxSize(int maxSize) {
+        lock.lock();
+        try {
+            this.maxSize = maxSize;
+            connectionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    //Changes to the statement cache size only apply to connections opened afterward
+    public void setStatementCacheSize(int statementCacheSize) {
+        if (statementCacheSize < 1) {
+            throw new IllegalArgumentException("Invalid statement cache size: " + statementCacheSize);
+        }
+
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    //Method to return the number of connections currently open or being opened by this pool
+    public int getTotalConnections() {
+        lock.lock();
+        try {
+            return totalConnections;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Method to return the number of connections currently waiting in the idle list
+    public int getIdleConnections() {
+        lock.lock();
+        try {
+            return idleConnections.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Method to open connections until the pool holds at least its minimum number of connections
+    public void fillToMinimum() throws SQLException {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || totalConnections >= minSize) {
+                    return;
+                }
+                totalConnections++;
+            } finally {
+                lock.unlock();
+            }
+
+            //Open the connection outside the lock so other threads are not blocked on network I/O
+            PooledConnection pooledConnection = openConnection();
+            returnConnection(pooledConnection);
+        }
+    }
+
+    //Method to borrow a connection from the pool, waiting up to the borrow timeout if the pool is at its maximum size
+    //The returned connection must be closed to hand it back to the pool
+    public PooledConnection borrowConnection() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+
+        while (true) {
+            PooledConnection candidate;
+            List<PooledConnection> evicted = null;
+
+            lock.lock();
+            try {
+                //Drop idled out connections first so they are not handed out
+                evicted = removeIdledOutConnections();
+
+                //Wait until there is either an idle connection or room to open a new one
+                while (true) {
+                    if (closed) {
+                        throw new SQLException("Connection pool is closed");
+                    }
+
+                    candidate = idleConnections.pollFirst();
+
+                    if (candidate != null || totalConnections < maxSize) {
+                        break;
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis +
+                                " ms waiting for a connection from a pool of " + maxSize);
+                    }
+
+                    connectionAvailable.awaitNanos(remaining);
+                }
+
+                //Reserve a slot for a new connection if no idle connection was available
+                if (candidate == null) {
+                    totalConnections++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection", e);
+            } finally {
+                lock.unlock();
+                closeAll(evicted);
+            }
+
+            //Open a new physical connection if no idle connection was taken
+            if (candidate == null) {
+                PooledConnection pooledConnection = openConnection();
+                pooledConnection.markBorrowed();
+                return pooledConnection;
+            }
+
+            //Validate the idle connection before handing it out, discarding it and trying again if it is dead
+            if (isValid(candidate)) {
+                candidate.markBorrowed();
+                return candidate;
+            }
+
+            discardConnection(candidate);
+        }
+    }
+
+    //Method called by PooledConnection.close to put a borrowed connection back into the idle list
+    void returnConnection(PooledConnection pooledConnection) {
+        boolean discard;
+
+        try {
+            discard = pooledConnection.getConnection().isClosed();
+
+            //Undo any transaction state left behind so the next borrower gets a clean connection
+            if (!discard && !pooledConnection.getConnection().getAutoCommit()) {
+                pooledConnection.getConnection().rollback();
+                pooledConnection.getConnection().setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            discard = true;
+        }
+
+        lock.lock();
+        try {
+            if (!closed && !discard) {
+                pooledConnection.markReturned();
+                idleConnections.offerFirst(pooledConnection);
+                connectionAvailable.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        discardConnection(pooledConnection);
+    }
+
+    //Method to close any idle connections that have been idle longer than the idle timeout, keeping at least the
+    //minimum number of connections open
+    public void evictIdleConnections() {
+        List<PooledConnection> evicted;
+
+        lock.lock();
+        try {
+            evicted = removeIdledOutConnections();
+        } finally {
+            lock.unlock();
+        }
+
+        closeAll(evicted);
+    }
+
+    //Method to close every idle connection and stop handing out new ones
+    //Borrowed connections are closed as they are returned
+    public void close() {
+        List<PooledConnection> idle;
+
+        lock.lock();
+        try {
+            closed = true;
+            idle = new ArrayList<>(idleConnections);
+            totalConnections -= idleConnections.size();
+            idleConnections.clear();
+            connectionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        evictionTask.cancel(false);
+        closeAll(idle);
+    }
+
+    //Method to remove idled out connections from the tail of the idle list - must be called while holding the lock
+    private List<PooledConnection> removeIdledOutConnections() {
+        List<PooledConnection> evicted = null;
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        long now = System.nanoTime();
+
+        Iterator<PooledConnection> iterator = idleConnections.descendingIterator();
+        while (iterator.hasNext() && totalConnections > minSize) {
+            PooledConnection pooledConnection = iterator.next();
+
+            //The idle list is ordered by return time, so stop at the first connection that has not idled out
+            if (now - pooledConnection.getLastReturnedNanos() < idleTimeoutNanos) {
+                break;
+            }
+
+            iterator.remove();
+            totalConnections--;
+
+            if (evicted == null) {
+                evicted = new ArrayList<>();
+            }
+            evicted.add(pooledConnection);
+        }
+
+        return evicted;
+    }
+
+    //Method to open a new physical connection for a slot that has already been reserved in totalConnections
+    private PooledConnection openConnection() throws SQLException {
+        try {
+            return new PooledConnection(this, DriverManager.getConnection(connectionString), statementCacheSize);
+        } catch (SQLException | RuntimeException e) {
+            releaseSlot();
+            throw e;
+        }
+    }
+
+    //Method to test whether an idle connection is still usable
+    private boolean isValid(PooledConnection pooledConnection) {
+        //Skip the validation round trip for connections that were in use a moment ago
+        if (System.nanoTime() - pooledConnection.getLastReturnedNanos() < VALIDATION_BYPASS_NANOS) {
+            return true;
+        }
+
+        try {
+            return pooledConnection.getConnection().isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    //Method to close a connection that will not go back into the idle list and free up its slot
+    private void discardConnection(PooledConnection pooledConnection) {
+        releaseSlot();
+        pooledConnection.closePhysicalConnection();
+    }
+
+    //Method to give back a reserved slot and wake up one waiting borrower
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            totalConnections--;
+            connectionAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Method to close a list of connections outside of the lock
+    private static void closeAll(List<PooledConnection> pooledConnections) {
+        if (pooledConnections == null) {
+            return;
+        }
+
+        for (PooledConnection pooledConnection : pooledConnections) {
+            pooledConnection.closePhysicalConnection();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ORMConnectionPool: min " + minSize + ", max " + maxSize + ", open " + getTotalConnections() +
+                ", idle " + getIdleConnections();
+    }
+}
@@ -0,0 +1,311 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Class that holds the process-wide second-level cache shared by every repository that turns it on
+//Entries are keyed by entity class and primary key value, and hold the values of the entity's read columns rather
+//than an instance, so a cached row is copied into the caller's object on every hit and nothing a caller does to its
+//object can change the cache. Entries expire after a time-to-live and the least recently used entries are evicted
+//once the cache is full; eviction is plain LRU, with no frequency-based admission
+//Every invalidation is stamped so values read from the database can be put with the stamp taken before the read, and
+//are dropped if the key was invalidated in the meantime, rather than bringing back the values an update replaced
+public class ORMEntityCache {
+    //Default cache settings
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    public static final long DEFAULT_TTL_MILLIS = 300000;
+
+    //Most invalidation stamps remembered; once older ones are forgotten, puts stamped before them are dropped
+    private static final int MAX_INVALIDATION_STAMPS = 4096;
+
+    //Single cache shared by all repositories
+    private static final ORMEntityCache entityCache = new ORMEntityCache();
+
+    //Member variables
+    private volatile int maxSize;
+    private volatile long ttlNanos;
+
+    //Lock guarding the entry map, which is kept in access order so the eldest entry is the least recently used
+    private final ReentrantLock lock;
+    private final LinkedHashMap<EntityKey, Entry> entries;
+
+    //Stamp of the last invalidation of each recently invalidated key, in invalidation order, and the stamp before
+    //which every put is dropped, raised by invalidateAll, clear and by forgetting old stamps
+    private final AtomicLong stampCounter;
+    private final LinkedHashMap<EntityKey, Long> invalidationStamps;
+    private long invalidationFloor;
+
+    //Statistics
+    private final AtomicLong hitCount;
+    private final AtomicLong missCount;
+    private final AtomicLong evictionCount;
+    private final AtomicLong expirationCount;
+
+    private ORMEntityCache() {
+        this.maxSize = DEFAULT_MAX_SIZE;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TTL_MILLIS);
+        this.lock = new ReentrantLock();
+        this.entries = new LinkedHashMap<>(256, 0.75f, true);
+        this.stampCounter = new AtomicLong();
+        this.invalidationStamps = new LinkedHashMap<>(256);
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+        this.evictionCount = new AtomicLong();
+        this.expirationCount = new AtomicLong();
+    }
+
+    public static ORMEntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    //POJO getter/setter methods
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTtlMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(ttlNanos);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public long getExpirationCount() {
+        return expirationCount.get();
+    }
+
+    //Method to return the fraction of lookups that were hits, or 0 if there have been none
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long lookups = hits + missCount.get();
+        return (lookups == 0) ? 0.0 : (double) hits / lookups;
+    }
+
+    //Lowering the maximum size evicts least recently used entries right away
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+
+        lock.lock();
+        try {
+            evictToMaxSize();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //A time-to-live of 0 or less keeps entries until they are evicted or invalidated
+    public void setTtlMillis(long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Method to return a copy of the column values cached for an entity, or null on a miss
+    public Object[] get(Class<?> entityClass, Object primaryKey) {
+        if (entityClass == null || primaryKey == null) {
+            return null;
+        }
+
+        EntityKey key = new EntityKey(entityClass, primaryKey);
+        Object[] values = null;
+
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+
+            if (entry != null) {
+                if (entry.isExpired(System.nanoTime())) {
+                    entries.remove(key);
+                    expirationCount.incrementAndGet();
+                }
+                else {
+                    values = entry.values;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (values == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+
+        hitCount.incrementAndGet();
+        return copyValues(values);
+    }
+
+    //Method to return the stamp to pass to put for values about to be read from the database
+    public long getStamp() {
+        return stampCounter.get();
+    }
+
+    //Method to cache a copy of the column values of an entity, replacing any entry for the same key
+    public void put(Class<?> entityClass, Object primaryKey, Object[] values) {
+        put(entityClass, primaryKey, values, Long.MAX_VALUE);
+    }
+
+    //Method to cache a copy of the column values of an entity read from the database, unless the entity was
+    //invalidated after the stamp was taken, returning whether they were cached
+    public boolean put(Class<?> entityClass, Object primaryKey, Object[] values, long stamp) {
+        if (entityClass == null || primaryKey == null || values == null || maxSize < 1) {
+            return false;
+        }
+
+        long ttl = ttlNanos;
+        EntityKey key = new EntityKey(entityClass, primaryKey);
+        Entry entry = new Entry(copyValues(values), (ttl > 0) ? System.nanoTime() + ttl : Long.MAX_VALUE);
+
+        lock.lock();
+        try {
+            //Drop values that may have been read before an invalidation
+            Long invalidated = invalidationStamps.get(key);
+            if (stamp < invalidationFloor || (invalidated != null && stamp < invalidated)) {
+                return false;
+            }
+
+            entries.put(key, entry);
+            evictToMaxSize();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Method to drop the entry for one entity
+    public void invalidate(Class<?> entityClass, Object primaryKey) {
+        if (entityClass == null || primaryKey == null) {
+            return;
+        }
+
+        EntityKey key = new EntityKey(entityClass, primaryKey);
+
+        lock.lock();
+        try {
+            entries.remove(key);
+
+            //Stamp the invalidation, moving the key to the end of the stamp order, and forget the oldest stamp if
+            //there are too many
+            invalidationStamps.remove(key);
+            invalidationStamps.put(key, stampCounter.incrementAndGet());
+
+            if (invalidationStamps.size() > MAX_INVALIDATION_STAMPS) {
+                Iterator<Long> iterator = invalidationStamps.values().iterator();
+                invalidationFloor = Math.max(invalidationFloor, iterator.next());
+                iterator.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Method to drop every entry of an entity class
+    public void invalidateAll(Class<?> entityClass) {
+        lock.lock();
+        try {
+            entries.keySet().removeIf(key -> key.entityClass == entityClass);
+            invalidationFloor = stampCounter.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Method to drop every entry and reset the statistics
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            invalidationStamps.clear();
+            invalidationFloor = stampCounter.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+
+        hitCount.set(0);
+        missCount.set(0);
+        evictionCount.set(0);
+        expirationCount.set(0);
+    }
+
+    //Method to remove least recently used entries until the cache is within its maximum size - lock must be held
+    private void evictToMaxSize() {
+        Iterator<Map.Entry<EntityKey, Entry>> iterator = entries.entrySet().iterator();
+
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    //Method to copy an array of column values, also copying byte arrays as the only mutable type a codec reads
+    private static Object[] copyValues(Object[] values) {
+        Object[] copy = values.clone();
+
+        for (int i = 0; i < copy.length; i++) {
+            if (copy[i] instanceof byte[]) {
+                copy[i] = ((byte[]) copy[i]).clone();
+            }
+        }
+
+        return copy;
+    }
+
+    //Class used as the key of an entry: an entity class and one of its primary key values
+    private static final class EntityKey {
+        private final Class<?> entityClass;
+        private final Object primaryKey;
+
+        private EntityKey(Class<?> entityClass, Object primaryKey) {
+            this.entityClass = entityClass;
+            this.primaryKey = primaryKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof EntityKey)) return false;
+            EntityKey other = (EntityKey) o;
+            return entityClass == other.entityClass && primaryKey.equals(other.primaryKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityClass, primaryKey);
+        }
+    }
+
+    //Class holding the cached column values of one entity and when they expire
+    private static final class Entry {
+        private final Object[] values;
+        private final long expiresAtNanos;
+
+        private Entry(Object[] values, long expiresAtNanos) {
+            this.values = values;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAtNanos != Long.MAX_VALUE && now - expiresAtNanos > 0;
+        }
+    }
+}
@@ -1,15 +1,70 @@
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+//Class that writes exceptions and messages to a daily log file
+//By default every entry is written synchronously: the file is opened, appended to and closed by the thread that logs.
+//With async output on, entries are put in a bounded buffer instead and a single writer thread keeps the day's file
+//open, writing entries in batches and flushing when enough text is buffered or the flush interval passes. When the
+//buffer is full, entries are dropped or the logging thread waits, depending on the overflow policy. If the writer
+//thread stops, entries are written synchronously again. At JVM exit the writer thread is stopped and writes out
+//everything it holds before closing the file
+//Repeated identical exceptions can also be rate limited, in either mode, so an outage does not flood the log. The number
+//of entries suppressed is logged with the next identical entry, or by the writer thread once the window closes, and
+//any counts still pending are logged at JVM exit
 public class ORMExceptionLogger {
+    //Enum of what async logging does with an entry when the buffer is full
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    //Default async settings
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    public static final int DEFAULT_FLUSH_THRESHOLD_CHARS = 64 * 1024;
+
+    //Most rate limit entries kept before they are all reset
+    private static final int MAX_RATE_LIMIT_ENTRIES = 1024;
+
+    //Longest the shutdown hook waits for the writer thread to write out what it holds
+    private static final long SHUTDOWN_JOIN_MILLIS = 5000;
+
     private static ORMExceptionLogger ormExceptionLogger;
     private static String filePath;
     private static boolean consoleOutputOn;
     private static int stackTraceSize;
 
+    //Async output settings
+    private static volatile boolean asyncOn;
+    private static volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private static volatile long flushIntervalMillis = DEFAULT_FLUSH_INTERVAL_MILLIS;
+    private static volatile int flushThresholdChars = DEFAULT_FLUSH_THRESHOLD_CHARS;
+
+    //Number of identical exceptions logged per second before further ones are counted instead, or 0 for no limit
+    private static volatile int repeatLimitPerSecond;
+
+    //Buffer of entries waiting for the writer thread, created along with the thread when async output is first used
+    private static volatile ArrayBlockingQueue<String> buffer;
+    private static volatile Thread writerThread;
+    private static volatile boolean stopRequested;
+    private static boolean shutdownHookAdded;
+    private static final ReentrantLock writerLock = new ReentrantLock();
+    private static final AtomicLong droppedCount = new AtomicLong();
+
+    //Count of each distinct exception logged in the current one second window
+    private static final ConcurrentHashMap<String, RepeatCount> repeatCounts = new ConcurrentHashMap<>();
+
     private ORMExceptionLogger() {
         filePath = "src/main/resources/ORM_Exception_Logs/";
         consoleOutputOn = false;
@@ -58,11 +113,84 @@ public class ORMExceptionLogger {
         ORMExceptionLogger.stackTraceSize = stackTraceSize;
     }
 
+    public static boolean isAsyncOn() {
+        return asyncOn;
+    }
+
+    public static OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public static long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    public static int getFlushThresholdChars() {
+        return flushThresholdChars;
+    }
+
+    public static int getRepeatLimitPerSecond() {
+        return repeatLimitPerSecond;
+    }
+
+    //Number of entries dropped because the async buffer was full
+    public static long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    //Turning async output off leaves anything already buffered to be written by the writer thread
+    public static void setAsyncOn(boolean asyncOn) {
+        if (asyncOn) {
+            startWriterThread(DEFAULT_BUFFER_SIZE);
+        }
+        ORMExceptionLogger.asyncOn = asyncOn;
+    }
+
+    //Turns async output on with a given buffer size, which only takes effect if the writer thread is not running yet
+    public static void setAsyncOn(int bufferSize) {
+        startWriterThread(bufferSize);
+        ORMExceptionLogger.asyncOn = true;
+    }
+
+    public static void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        ORMExceptionLogger.overflowPolicy = overflowPolicy;
+    }
+
+    public static void setFlushIntervalMillis(long flushIntervalMillis) {
+        ORMExceptionLogger.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public static void setFlushThresholdChars(int flushThresholdChars) {
+        ORMExceptionLogger.flushThresholdChars = flushThresholdChars;
+    }
+
+    public static void setRepeatLimitPerSecond(int repeatLimitPerSecond) {
+        ORMExceptionLogger.repeatLimitPerSecond = repeatLimitPerSecond;
+
+        //Log the counts of repeats still being suppressed at JVM exit
+        if (repeatLimitPerSecond > 0) {
+            addShutdownHook();
+        }
+    }
+
     public void log(Exception e) {
+        //Count the exception instead of logging it if identical ones have hit the rate limit
+        String suppressedNote = "";
+        if (repeatLimitPerSecond > 0) {
+            long suppressed = checkRepeatLimit(e);
+            if (suppressed < 0) {
+                return;
+            }
+            if (suppressed > 0) {
+                suppressedNote = " (" + suppressed + " identical entries suppressed)";
+            }
+        }
+
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append(ormExceptionLogger.getTimestamp())
                 .append(" - ")
                 .append(e.getMessage())
+                .append(suppressedNote)
                 .append("\n")
                 .append(ormExceptionLogger.formatStackTrace(e));
         writeToLog(stringBuilder.toString());
@@ -97,7 +225,243 @@ public class ORMExceptionLogger {
         return stringBuilder.toString();
     }
 
+    //Method to check an exception against the repeat limit, returning -1 if it should not be logged, or otherwise the
+    //number of identical exceptions suppressed in the previous window
+    private static long checkRepeatLimit(Exception e) {
+        StackTraceElement[] stackTrace = e.getStackTrace();
+        String key = e.getClass().getName() + ":" + e.getMessage() + ":" +
+                ((stackTrace.length > 0) ? stackTrace[0].toString() : "");
+
+        //Reset the counts if too many distinct exceptions have been seen
+        if (repeatCounts.size() > MAX_RATE_LIMIT_ENTRIES) {
+            repeatCounts.clear();
+        }
+
+        RepeatCount repeatCount = repeatCounts.computeIfAbsent(key, k -> new RepeatCount());
+        return repeatCount.record(System.nanoTime(), repeatLimitPerSecond);
+    }
+
+    //Method to start the writer thread and its buffer if they are not running already
+    private static void startWriterThread(int bufferSize) {
+        writerLock.lock();
+        try {
+            if (writerThread != null) {
+                return;
+            }
+
+            //Write out anything left in the buffer of a writer thread that has stopped
+            drainBufferToFile();
+
+            stopRequested = false;
+            buffer = new ArrayBlockingQueue<>(bufferSize);
+            writerThread = new Thread(ORMExceptionLogger::runWriter, "ORMExceptionLogger-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+
+            addShutdownHook();
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    //Method to add the hook that stops the writer thread and logs pending suppressed counts at JVM exit, once
+    private static void addShutdownHook() {
+        writerLock.lock();
+        try {
+            if (!shutdownHookAdded) {
+                Runtime.getRuntime().addShutdownHook(new Thread(ORMExceptionLogger::stopOnShutdown, "ORMExceptionLogger-shutdown"));
+                shutdownHookAdded = true;
+            }
+        } finally {
+            writerLock.unlock();
+        }
+    }
+
+    //Method run by the writer thread: takes entries off the buffer in batches and writes them to the day's file,
+    //keeping the file open between batches
+    //When asked to stop, or if interrupted, it writes out everything it holds, flushes and closes the file, and clears
+    //writerThread so entries logged afterwards are written synchronously
+    private static void runWriter() {
+        List<String> batch = new ArrayList<>();
+        LogFileWriter writer = new LogFileWriter();
+        boolean interrupted = false;
+
+        try {
+            while (!stopRequested) {
+                try {
+                    //Wait up to the flush interval for an entry, then take everything else that is waiting
+                    String entry = buffer.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                    if (entry != null) {
+                        batch.add(entry);
+                        buffer.drainTo(batch);
+                    }
+
+                    //Add the counts of repeats suppressed in windows that have closed
+                    addSuppressedCounts(batch, false);
+
+                    writer.write(batch);
+                    writer.flushIfDue();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    break;
+                } catch (IOException e) {
+                    //Drop the batch and reopen the file for the next one
+                    e.printStackTrace();
+                    writer.close();
+                }
+                batch.clear();
+            }
+
+            //Write everything still buffered, then the counts of repeats still being suppressed
+            buffer.drainTo(batch);
+            addSuppressedCounts(batch, true);
+            writer.write(batch);
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            //Closing the writer flushes whatever text it still holds
+            writer.close();
+
+            writerLock.lock();
+            try {
+                writerThread = null;
+            } finally {
+                writerLock.unlock();
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    //Method to add an entry to a batch for each exception whose suppressed repeats have not been logged, either only
+    //for windows that have closed or for every window
+    private static void addSuppressedCounts(List<String> batch, boolean all) {
+        if (repeatCounts.isEmpty()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (Map.Entry<String, RepeatCount> entry : repeatCounts.entrySet()) {
+            long suppressed = entry.getValue().takeSuppressed(now, all);
+
+            if (suppressed > 0) {
+                batch.add(getExceptionLogger().getTimestamp() + " - " + suppressed + " identical entries suppressed: " +
+                        entry.getKey() + "\n");
+            }
+        }
+    }
+
+    //Method run at JVM exit: asks the writer thread to stop and waits for it to write out what it holds, then writes
+    //anything left synchronously if the writer thread is not running
+    private static void stopOnShutdown() {
+        Thread writer = writerThread;
+
+        if (writer != null) {
+            stopRequested = true;
+            writer.interrupt();
+
+            try {
+                writer.join(SHUTDOWN_JOIN_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        //Leave the file to the writer thread if it is still running rather than interleave with it
+        if (writerThread == null) {
+            drainBufferToFile();
+
+            List<String> suppressedCounts = new ArrayList<>();
+            addSuppressedCounts(suppressedCounts, true);
+            writeAllToFile(suppressedCounts);
+        }
+    }
+
+    //Method to open a buffered writer appending to a log file, falling back to the project directory like the
+    //synchronous writer does
+    private static Writer openWriter(String fileName) throws IOException {
+        try {
+            return new BufferedWriter(new FileWriter(fileName, true));
+        } catch (IOException e) {
+            return new BufferedWriter(new FileWriter(getExceptionLogger().getFileName(), true));
+        }
+    }
+
+    private static void closeQuietly(Writer writer) {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    //Method to write any entries left in the buffer synchronously
+    private static void drainBufferToFile() {
+        ArrayBlockingQueue<String> remainingBuffer = buffer;
+
+        if (remainingBuffer != null) {
+            List<String> remaining = new ArrayList<>();
+            remainingBuffer.drainTo(remaining);
+            writeAllToFile(remaining);
+        }
+    }
+
+    private static void writeAllToFile(List<String> entries) {
+        if (!entries.isEmpty()) {
+            StringBuilder stringBuilder = new StringBuilder();
+            entries.forEach(stringBuilder::append);
+            getExceptionLogger().writeToFile(stringBuilder.toString());
+        }
+    }
+
     private void writeToLog(String logText) {
+        //Hand the entry to the writer thread if async output is on and the thread is running
+        if (asyncOn) {
+            if (enqueue(logText)) {
+                return;
+            }
+
+            //The writer thread has stopped, so write what it left in the buffer first to keep entries in order
+            drainBufferToFile();
+        }
+
+        writeToFile(logText);
+    }
+
+    //Method to put an entry in the buffer according to the overflow policy, returning false without buffering it if
+    //the writer thread is not running
+    private static boolean enqueue(String logText) {
+        if (writerThread == null) {
+            return false;
+        }
+
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            if (!buffer.offer(logText)) {
+                droppedCount.incrementAndGet();
+            }
+            return true;
+        }
+
+        //Wait for space a flush interval at a time, checking the writer thread is still there to make it
+        try {
+            while (!buffer.offer(logText, flushIntervalMillis, TimeUnit.MILLISECONDS)) {
+                if (writerThread == null) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            droppedCount.incrementAndGet();
+            Thread.currentThread().interrupt();
+        }
+
+        return true;
+    }
+
+    private void writeToFile(String logText) {
         String fileName = getFilePath() + getFileName();
 
         //Attempt to write to a log file in the filePath directory
@@ -116,4 +480,99 @@ public class ORMExceptionLogger {
         }
 
     }
+
+    //Class used by the writer thread to keep the day's log file open, opening the next one when the day or path changes
+    //and flushing when enough text is buffered or the flush interval passes
+    private static final class LogFileWriter {
+        private Writer writer;
+        private String openFileName;
+        private int unflushedChars;
+        private long lastFlushNanos = System.nanoTime();
+
+        private void write(List<String> entries) throws IOException {
+            if (entries.isEmpty()) {
+                return;
+            }
+
+            //Open the file for the current day, closing the previous one if the day or path has changed
+            String fileName = getFilePath() + getExceptionLogger().getFileName();
+            if (!fileName.equals(openFileName)) {
+                close();
+                writer = openWriter(fileName);
+                openFileName = fileName;
+            }
+
+            for (String logText : entries) {
+                writer.write(logText);
+                unflushedChars += logText.length();
+            }
+        }
+
+        private void flushIfDue() throws IOException {
+            long now = System.nanoTime();
+
+            if (writer != null && unflushedChars > 0 && (unflushedChars >= flushThresholdChars ||
+                    now - lastFlushNanos >= TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis))) {
+                writer.flush();
+                unflushedChars = 0;
+                lastFlushNanos = now;
+            }
+        }
+
+        private void close() {
+            closeQuietly(writer);
+            writer = null;
+            openFileName = null;
+            unflushedChars = 0;
+        }
+    }
+
+    //Class holding how many times one exception has been logged in the current one second window
+    private static final class RepeatCount {
+        private final ReentrantLock lock = new ReentrantLock();
+        private long windowStartNanos;
+        private long count;
+        private long suppressed;
+
+        //Method to record one occurrence, returning -1 if it is over the limit, or otherwise the number suppressed in
+        //the previous window
+        private long record(long now, int limit) {
+            lock.lock();
+            try {
+                long previouslySuppressed = 0;
+
+                if (count == 0 || now - windowStartNanos >= TimeUnit.SECONDS.toNanos(1)) {
+                    previouslySuppressed = suppressed;
+                    windowStartNanos = now;
+                    count = 0;
+                    suppressed = 0;
+                }
+
+                if (++count > limit) {
+                    suppressed++;
+                    return -1;
+                }
+
+                return previouslySuppressed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        //Method to take the number suppressed so it is not reported again, if the window has closed or regardless
+        private long takeSuppressed(long now, boolean evenIfOpen) {
+            lock.lock();
+            try {
+                if (suppressed == 0 || (!evenIfOpen && now - windowStartNanos < TimeUnit.SECONDS.toNanos(1))) {
+                    return 0;
+                }
+
+                long taken = suppressed;
+                suppressed = 0;
+                return taken;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
 }
@@ -0,0 +1,45 @@
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//Class that creates executors for running repository operations
+//Virtual threads are looked up by reflection so the ORM still builds and runs on Java 8; on JDK 21 or later (see the
+//modern-jdk build profile) each operation can get a virtual thread of its own, and thousands of them can wait on the
+//connection pool without holding a platform thread each
+public class ORMExecutors {
+    //Static member holding Executors.newVirtualThreadPerTaskExecutor, or null if the running JDK does not have it
+    private static final Method newVirtualThreadPerTaskExecutor = findVirtualThreadFactoryMethod();
+
+    //Empty constructor
+    private ORMExecutors() { }
+
+    //Method to return whether the running JDK supports virtual threads
+    public static boolean isVirtualThreadSupported() {
+        return newVirtualThreadPerTaskExecutor != null;
+    }
+
+    //Method to return an executor that starts a new virtual thread for each task, or null if the running JDK does not
+    //support virtual threads
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (newVirtualThreadPerTaskExecutor == null) {
+            return null;
+        }
+
+        try {
+            return (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+        }
+
+        return null;
+    }
+
+    //Method to look up the virtual thread executor factory method
+    private static Method findVirtualThreadFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+//Class that holds the metrics registry repositories report their operations to
+//No registry is set by default, in which case operations are timed with a shared no-op timer and cost nothing extra
+public class ORMMetrics {
+    //Static member holding the registry, or null if metrics are off
+    private static volatile ORMMetricsRegistry registry;
+
+    //Empty constructor
+    private ORMMetrics() { }
+
+    public static ORMMetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    //Setting the registry to null turns metrics off
+    public static void setRegistry(ORMMetricsRegistry registry) {
+        ORMMetrics.registry = registry;
+    }
+
+    public static boolean isEnabled() {
+        return registry != null;
+    }
+
+    //Method to start timing an operation, returning the no-op timer if metrics are off
+    public static OperationTimer startOperation(String tableName, String operation) {
+        ORMMetricsRegistry current = registry;
+        return (current == null) ? OperationTimer.NOOP : new OperationTimer(current, tableName, operation);
+    }
+}
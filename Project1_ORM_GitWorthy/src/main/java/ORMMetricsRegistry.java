@@ -0,0 +1,9 @@
+//Interface for classes that receive the timings of repository operations, e.g. to keep histograms or forward them to
+//a monitoring system
+//Implementations are called on the thread that ran the operation, once per operation, and must be thread-safe
+public interface ORMMetricsRegistry {
+    //Method called when an operation finishes, with the time spent in each phase: preparing (borrowing a connection and
+    //binding the statement), executing, and hydrating results into objects; phases an operation did not reach are 0
+    void recordOperation(String tableName, String operation, long prepareNanos, long executeNanos, long hydrateNanos,
+                         long totalNanos, long rows, boolean failed);
+}
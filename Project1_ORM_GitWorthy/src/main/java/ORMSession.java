@@ -0,0 +1,86 @@
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+//Class that holds the state of a repository session: an identity map from primary key value to the one instance of
+//the entity loaded for that key while the session is open
+//Reads of a key already in the map return the mapped instance without a round trip; writes through the repository
+//keep the map consistent. The session also keeps a snapshot of the write column values of every instance it has seen
+//loaded or written, which update compares against to write only the columns that changed
+//A session belongs to one repository and is not thread-safe
+public class ORMSession<O> {
+    //Member variables
+    private final Map<Object, O> identityMap;
+    private final IdentityHashMap<O, Object[]> snapshots;
+
+    //Empty constructor
+    public ORMSession() {
+        this.identityMap = new HashMap<>();
+        this.snapshots = new IdentityHashMap<>();
+    }
+
+    //Method to return the instance mapped to a primary key, or null if the key has not been loaded in this session
+    public O get(Object primaryKey) {
+        return (primaryKey == null) ? null : identityMap.get(primaryKey);
+    }
+
+    //Method to return whether a primary key has been loaded in this session
+    public boolean contains(Object primaryKey) {
+        return primaryKey != null && identityMap.containsKey(primaryKey);
+    }
+
+    //Method to map a primary key to an instance, replacing any instance mapped to it before
+    public void put(Object primaryKey, O o) {
+        if (primaryKey != null && o != null) {
+            identityMap.put(primaryKey, o);
+        }
+    }
+
+    //Method to map a primary key to an instance unless it is already mapped, returning the instance that is mapped
+    //afterward
+    public O putIfAbsent(Object primaryKey, O o) {
+        if (primaryKey == null || o == null) {
+            return o;
+        }
+
+        O existing = identityMap.putIfAbsent(primaryKey, o);
+        return (existing == null) ? o : existing;
+    }
+
+    //Method to drop the instance mapped to a primary key, along with its snapshot
+    public void remove(Object primaryKey) {
+        if (primaryKey != null) {
+            O o = identityMap.remove(primaryKey);
+
+            if (o != null) {
+                snapshots.remove(o);
+            }
+        }
+    }
+
+    //Method to return the write column values last recorded for an instance, or null if none were recorded
+    public Object[] getSnapshot(O o) {
+        return snapshots.get(o);
+    }
+
+    //Method to record the write column values of an instance as they are in the database
+    public void putSnapshot(O o, Object[] values) {
+        if (o != null && values != null) {
+            snapshots.put(o, values);
+        }
+    }
+
+    public void removeSnapshot(O o) {
+        snapshots.remove(o);
+    }
+
+    //Method to drop every mapped instance and snapshot
+    public void clear() {
+        identityMap.clear();
+        snapshots.clear();
+    }
+
+    public int size() {
+        return identityMap.size();
+    }
+}
@@ -0,0 +1,111 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Class that holds a bounded, least recently used set of PreparedStatements for a single connection
+//Statements are keyed by their SQL text and generated keys mode so that repeated repository operations reuse the
+//server-side prepare instead of preparing (and leaking) a new statement on every call
+//Only the thread that has borrowed the owning connection uses the cache, so it is not synchronized
+public class ORMStatementCache {
+    //Default number of statements kept open per connection
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    //Member variables
+    private final Connection connection;
+    private final int maxSize;
+    private final LinkedHashMap<StatementKey, PreparedStatement> statements;
+
+    //Constructor taking in the connection to prepare statements on and the maximum number of statements to keep
+    //Every statement handed out has to be cached so it is closed with the cache, so the cache cannot be disabled
+    public ORMStatementCache(Connection connection, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Invalid statement cache size: " + maxSize);
+        }
+
+        this.connection = connection;
+        this.maxSize = maxSize;
+
+        //Access ordered map that closes the least recently used statement once the cache grows past its maximum size
+        this.statements = new LinkedHashMap<StatementKey, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StatementKey, PreparedStatement> eldest) {
+                if (size() > ORMStatementCache.this.maxSize) {
+                    closeStatement(eldest.getValue());
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        return statements.size();
+    }
+
+    //Method to return a cached statement for the given SQL and generated keys mode, preparing and caching a new one
+    //if none is cached or the cached one has been closed
+    //Statements returned by this method belong to the cache and must not be closed by the caller
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        StatementKey key = new StatementKey(sql, autoGeneratedKeys);
+        PreparedStatement preparedStatement = statements.get(key);
+
+        if (preparedStatement != null && !preparedStatement.isClosed()) {
+            return preparedStatement;
+        }
+
+        preparedStatement = connection.prepareStatement(sql, autoGeneratedKeys);
+        statements.put(key, preparedStatement);
+
+        return preparedStatement;
+    }
+
+    //Method to close and remove every cached statement
+    public void clear() {
+        for (PreparedStatement preparedStatement : statements.values()) {
+            closeStatement(preparedStatement);
+        }
+
+        statements.clear();
+    }
+
+    //Method to close a statement that has been evicted from the cache
+    private static void closeStatement(PreparedStatement preparedStatement) {
+        try {
+            preparedStatement.close();
+        } catch (SQLException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+        }
+    }
+
+    //Class used as the cache key, combining the SQL text with the generated keys mode
+    private static final class StatementKey {
+        private final String sql;
+        private final int autoGeneratedKeys;
+
+        private StatementKey(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof StatementKey)) return false;
+
+            StatementKey other = (StatementKey) o;
+            return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + autoGeneratedKeys;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+//Class that prints diagnostic messages for the ORM, gated by a process-wide level
+//Messages are either parameterized, with each "{}" in the format replaced by the next argument, or built by a
+//Supplier; either way nothing is formatted, concatenated or toString'd unless the level is enabled, so with tracing
+//off a call costs a single volatile read and allocates nothing (as long as primitive arguments use the int overloads)
+public class ORMTracer {
+    //Enum of trace levels, from least to most detailed
+    public enum Level {
+        OFF, INFO, DEBUG, TRACE
+    }
+
+    //Static members holding the current level and where enabled messages are sent
+    private static volatile int levelOrdinal = Level.OFF.ordinal();
+    private static volatile Consumer<String> sink = System.out::println;
+
+    //Empty constructor
+    private ORMTracer() { }
+
+    public static Level getLevel() {
+        return Level.values()[levelOrdinal];
+    }
+
+    public static void setLevel(Level level) {
+        ORMTracer.levelOrdinal = level.ordinal();
+    }
+
+    //Messages go to standard out unless another sink is set, e.g. a logging framework
+    public static void setSink(Consumer<String> sink) {
+        ORMTracer.sink = sink;
+    }
+
+    //Method to return whether messages of a given level are printed
+    public static boolean isEnabled(Level level) {
+        return level.ordinal() <= levelOrdinal && level != Level.OFF;
+    }
+
+    //Methods to print a message if its level is enabled
+    public static void trace(Level level, String message) {
+        if (isEnabled(level)) {
+            emit(message);
+        }
+    }
+
+    public static void trace(Level level, String format, Object arg) {
+        if (isEnabled(level)) {
+            emit(format(format, arg));
+        }
+    }
+
+    public static void trace(Level level, String format, int arg) {
+        if (isEnabled(level)) {
+            emit(format(format, arg));
+        }
+    }
+
+    public static void trace(Level level, String format, Object arg1, Object arg2) {
+        if (isEnabled(level)) {
+            emit(format(format, arg1, arg2));
+        }
+    }
+
+    public static void trace(Level level, Supplier<String> messageSupplier) {
+        if (isEnabled(level)) {
+            emit(messageSupplier.get());
+        }
+    }
+
+    //Method to send an already built message to the sink, without checking the level
+    static void emit(String message) {
+        sink.accept(message);
+    }
+
+    //Method to replace each "{}" in a format with the next argument; extra placeholders are left as they are
+    static String format(String format, Object... args) {
+        StringBuilder message = new StringBuilder(format.length() + 32);
+        int start = 0;
+
+        for (Object arg : args) {
+            int placeholder = format.indexOf("{}", start);
+            if (placeholder < 0) {
+                break;
+            }
+
+            message.append(format, start, placeholder).append(arg);
+            start = placeholder + 2;
+        }
+
+        return message.append(format, start, format.length()).toString();
+    }
+}
@@ -0,0 +1,128 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+//Class that holds the metrics of one operation on one table: counts, errors, rows, and latency histograms for the
+//whole operation and for each of its phases
+public class OperationMetrics implements OperationMetricsMXBean {
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    //Member variables
+    private final String tableName;
+    private final String operation;
+    private final LongAdder errorCount;
+    private final LongAdder rows;
+    private final LatencyHistogram totalLatency;
+    private final LatencyHistogram prepareLatency;
+    private final LatencyHistogram executeLatency;
+    private final LatencyHistogram hydrateLatency;
+
+    //Constructor taking in the table and operation the metrics are for
+    public OperationMetrics(String tableName, String operation) {
+        this.tableName = tableName;
+        this.operation = operation;
+        this.errorCount = new LongAdder();
+        this.rows = new LongAdder();
+        this.totalLatency = new LatencyHistogram();
+        this.prepareLatency = new LatencyHistogram();
+        this.executeLatency = new LatencyHistogram();
+        this.hydrateLatency = new LatencyHistogram();
+    }
+
+    //Method to add one finished operation to the metrics
+    public void record(long prepareNanos, long executeNanos, long hydrateNanos, long totalNanos, long rows, boolean failed) {
+        totalLatency.record(totalNanos);
+        prepareLatency.record(prepareNanos);
+        executeLatency.record(executeNanos);
+        hydrateLatency.record(hydrateNanos);
+        this.rows.add(rows);
+
+        if (failed) {
+            errorCount.increment();
+        }
+    }
+
+    //POJO getter methods
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public LatencyHistogram getTotalLatency() {
+        return totalLatency;
+    }
+
+    public LatencyHistogram getPrepareLatency() {
+        return prepareLatency;
+    }
+
+    public LatencyHistogram getExecuteLatency() {
+        return executeLatency;
+    }
+
+    public LatencyHistogram getHydrateLatency() {
+        return hydrateLatency;
+    }
+
+    //Methods published over JMX
+    public long getCount() {
+        return totalLatency.getCount();
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public double getMeanMillis() {
+        return totalLatency.getMean() / NANOS_PER_MILLI;
+    }
+
+    public double getP50Millis() {
+        return totalLatency.getValueAtPercentile(50) / NANOS_PER_MILLI;
+    }
+
+    public double getP95Millis() {
+        return totalLatency.getValueAtPercentile(95) / NANOS_PER_MILLI;
+    }
+
+    public double getP99Millis() {
+        return totalLatency.getValueAtPercentile(99) / NANOS_PER_MILLI;
+    }
+
+    public double getMaxMillis() {
+        return totalLatency.getMax() / NANOS_PER_MILLI;
+    }
+
+    public double getMeanPrepareMillis() {
+        return prepareLatency.getMean() / NANOS_PER_MILLI;
+    }
+
+    public double getMeanExecuteMillis() {
+        return executeLatency.getMean() / NANOS_PER_MILLI;
+    }
+
+    public double getMeanHydrateMillis() {
+        return hydrateLatency.getMean() / NANOS_PER_MILLI;
+    }
+
+    public void reset() {
+        totalLatency.reset();
+        prepareLatency.reset();
+        executeLatency.reset();
+        hydrateLatency.reset();
+        errorCount.reset();
+        rows.reset();
+    }
+
+    @Override
+    public String toString() {
+        return tableName + "." + operation + ": count " + getCount() + ", errors " + getErrorCount() + ", rows " +
+                getRows() + ", mean " + getMeanMillis() + "ms, p99 " + getP99Millis() + "ms, max " + getMaxMillis() + "ms";
+    }
+}
@@ -0,0 +1,30 @@
+//Interface of the attributes JMXMetricsExporter publishes for one table and operation, with latencies in milliseconds
+public interface OperationMetricsMXBean {
+    String getTableName();
+
+    String getOperation();
+
+    long getCount();
+
+    long getErrorCount();
+
+    long getRows();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    double getMeanPrepareMillis();
+
+    double getMeanExecuteMillis();
+
+    double getMeanHydrateMillis();
+
+    void reset();
+}
@@ -0,0 +1,97 @@
+//Class that times the phases of one repository operation and reports them to a metrics registry when stopped
+//Phases are marked in order as the operation reaches them: prepared once the statement is bound, executed once the
+//database has answered, and hydrated once the results are read into objects
+//The shared NOOP timer ignores every call, so code can time operations the same way whether metrics are on or off
+public class OperationTimer {
+    //Timer used when metrics are off
+    static final OperationTimer NOOP = new OperationTimer(null, null, null);
+
+    //Member variables
+    private final ORMMetricsRegistry registry;
+    private final String tableName;
+    private final String operation;
+    private final long startNanos;
+    private long preparedNanos;
+    private long executedNanos;
+    private long hydratedNanos;
+    private long rows;
+    private boolean failed;
+    private boolean stopped;
+
+    //Constructor taking in the registry to report to and the names the operation is reported under
+    OperationTimer(ORMMetricsRegistry registry, String tableName, String operation) {
+        this.registry = registry;
+        this.tableName = tableName;
+        this.operation = operation;
+        this.startNanos = (registry == null) ? 0 : System.nanoTime();
+    }
+
+    //Methods to mark the end of each phase
+    public void prepared() {
+        if (registry != null) {
+            preparedNanos = System.nanoTime();
+        }
+    }
+
+    public void executed() {
+        if (registry != null) {
+            executedNanos = System.nanoTime();
+        }
+    }
+
+    public void hydrated() {
+        if (registry != null) {
+            hydratedNanos = System.nanoTime();
+        }
+    }
+
+    //Method to add time spent hydrating in several steps, e.g. one row at a time, to the hydrate phase
+    public void addHydrateNanos(long nanos) {
+        if (registry != null) {
+            if (hydratedNanos == 0) {
+                hydratedNanos = executedNanos;
+            }
+            hydratedNanos += nanos;
+        }
+    }
+
+    //Method to set the number of rows the operation affected or returned
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public void addRows(long rows) {
+        this.rows += rows;
+    }
+
+    //Method to mark the operation as failed
+    public void failed() {
+        this.failed = true;
+    }
+
+    public boolean isEnabled() {
+        return registry != null;
+    }
+
+    //Method to stop the timer and report the operation; calling it more than once has no further effect
+    public void stop() {
+        if (registry == null || stopped) {
+            return;
+        }
+        stopped = true;
+
+        long endNanos = System.nanoTime();
+
+        //Each phase runs from the end of the phase before it; phases that were not reached count as 0
+        long prepareNanos = (preparedNanos == 0) ? 0 : preparedNanos - startNanos;
+        long executeNanos = (executedNanos == 0 || preparedNanos == 0) ? 0 : executedNanos - preparedNanos;
+        long hydrateNanos = (hydratedNanos == 0 || executedNanos == 0) ? 0 : hydratedNanos - executedNanos;
+
+        try {
+            registry.recordOperation(tableName, operation, prepareNanos, executeNanos, hydrateNanos,
+                    endNanos - startNanos, rows, failed);
+        } catch (RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+        }
+    }
+}
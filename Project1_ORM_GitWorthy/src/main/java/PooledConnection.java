@@ -0,0 +1,88 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Class that wraps a physical java.sql.Connection owned by an ORMConnectionPool
+//Closing a pooled connection hands it back to its pool instead of closing the physical connection, so it can be used
+//in a try-with-resources block around a single repository operation
+public class PooledConnection implements AutoCloseable {
+    //Member variables
+    private final ORMConnectionPool pool;
+    private final Connection connection;
+    private final ORMStatementCache statementCache;
+    private volatile long lastReturnedNanos;
+    private final AtomicBoolean borrowed;
+
+    //Constructor taking in the owning pool, the physical connection it hands out and the size of its statement cache
+    PooledConnection(ORMConnectionPool pool, Connection connection, int statementCacheSize) {
+        this.pool = pool;
+        this.connection = connection;
+        this.statementCache = new ORMStatementCache(connection, statementCacheSize);
+        this.lastReturnedNanos = System.nanoTime();
+        this.borrowed = new AtomicBoolean(false);
+    }
+
+    //POJO getter methods
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public ORMStatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    public ORMConnectionPool getPool() {
+        return pool;
+    }
+
+    public boolean isBorrowed() {
+        return borrowed.get();
+    }
+
+    long getLastReturnedNanos() {
+        return lastReturnedNanos;
+    }
+
+    //Methods that return a cached PreparedStatement for the given SQL on this connection
+    //Statements returned by these methods stay open for reuse and must not be closed by the caller
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return statementCache.prepareStatement(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        return statementCache.prepareStatement(sql, autoGeneratedKeys);
+    }
+
+    //Method called by the pool when this connection is handed out
+    void markBorrowed() {
+        borrowed.set(true);
+    }
+
+    //Method called by the pool when this connection is put back into the idle list
+    void markReturned() {
+        this.lastReturnedNanos = System.nanoTime();
+    }
+
+    //Method to close the physical connection once the pool has decided to discard it
+    void closePhysicalConnection() {
+        statementCache.clear();
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+        }
+    }
+
+    //Returns this connection to its pool - calling close more than once has no further effect
+    //The borrowed flag is cleared atomically before the pool sees the connection, so a second close can never return or
+    //discard it again, whether it went back into the idle list or was discarded
+    @Override
+    public void close() {
+        if (borrowed.compareAndSet(true, false)) {
+            pool.returnConnection(this);
+        }
+    }
+}
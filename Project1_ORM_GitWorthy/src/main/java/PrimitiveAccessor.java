@@ -0,0 +1,261 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+//Class that binds and reads a column with a primitive field type without boxing its value
+//The getter/setter are held as MethodHandles adapted to take the entity as an Object but keeping their exact primitive
+//parameter/return type, and are called with invokeExact between the JDBC getXxx/setXxx of the same primitive type
+//Primitive fields cannot hold null, so SQL NULL is read as zero/false, as JDBC returns it
+public abstract class PrimitiveAccessor {
+    //Lookup used to unreflect getter/setter methods
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+    //Member variables
+    protected final MethodHandle getter;
+    protected final MethodHandle setter;
+
+    protected PrimitiveAccessor(MethodHandle getter, MethodHandle setter) {
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    //Method that returns the accessor for a column's field, or null if the field is not primitive
+    public static PrimitiveAccessor forColumn(Field property, Method getter, Method setter) {
+        if (property == null || !property.getType().isPrimitive()) {
+            return null;
+        }
+
+        Class<?> type = property.getType();
+        MethodHandle getterHandle = unreflect(getter, MethodType.methodType(type, Object.class));
+        MethodHandle setterHandle = unreflect(setter, MethodType.methodType(void.class, Object.class, type));
+
+        if (type == int.class) {
+            return new IntAccessor(getterHandle, setterHandle);
+        }
+        if (type == long.class) {
+            return new LongAccessor(getterHandle, setterHandle);
+        }
+        if (type == double.class) {
+            return new DoubleAccessor(getterHandle, setterHandle);
+        }
+        if (type == float.class) {
+            return new FloatAccessor(getterHandle, setterHandle);
+        }
+        if (type == short.class) {
+            return new ShortAccessor(getterHandle, setterHandle);
+        }
+        if (type == byte.class) {
+            return new ByteAccessor(getterHandle, setterHandle);
+        }
+        if (type == boolean.class) {
+            return new BooleanAccessor(getterHandle, setterHandle);
+        }
+
+        //char is not a supported column type
+        return null;
+    }
+
+    //Method to return whether a getter/setter was linked
+    public boolean hasGetter() {
+        return getter != null;
+    }
+
+    public boolean hasSetter() {
+        return setter != null;
+    }
+
+    //Method to bind the field's value on a given object to a statement parameter
+    public abstract void bind(PreparedStatement preparedStatement, int index, Object o) throws SQLException;
+
+    //Method to read a result set column into the field on a given object
+    public abstract void read(ResultSet rs, int index, Object o) throws SQLException;
+
+    //Method to unreflect a getter/setter and adapt it to a given exact type, or return null if there is none
+    private static MethodHandle unreflect(Method m, MethodType type) {
+        if (m == null) {
+            return null;
+        }
+
+        try {
+            //The setter's return value, if any, is dropped
+            return lookup.unreflect(m).asType(type);
+        } catch (IllegalAccessException | RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            return null;
+        }
+    }
+
+    //Method to rethrow what a getter/setter or the driver threw as an SQLException or unchecked exception
+    protected static RuntimeException propagate(Throwable t) throws SQLException {
+        if (t instanceof SQLException) {
+            throw (SQLException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+
+        return new IllegalStateException(t);
+    }
+
+    static final class IntAccessor extends PrimitiveAccessor {
+        IntAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter, setter);
+        }
+
+        public void bind(PreparedStatement preparedStatement, int index, Object o) throws SQLException {
+            try {
+                preparedStatement.setInt(index, (int) getter.invokeExact(o));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        public void read(ResultSet rs, int index, Object o) throws SQLException {
+            try {
+                setter.invokeExact(o, rs.getInt(index));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+    }
+
+    static final class LongAccessor extends PrimitiveAccessor {
+        LongAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter, setter);
+        }
+
+        public void bind(PreparedStatement preparedStatement, int index, Object o) throws SQLException {
+            try {
+                preparedStatement.setLong(index, (long) getter.invokeExact(o));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        public void read(ResultSet rs, int index, Object o) throws SQLException {
+            try {
+                setter.invokeExact(o, rs.getLong(index));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+    }
+
+    static final class DoubleAccessor extends PrimitiveAccessor {
+        DoubleAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter, setter);
+        }
+
+        public void bind(PreparedStatement preparedStatement, int index, Object o) throws SQLException {
+            try {
+                preparedStatement.setDouble(index, (double) getter.invokeExact(o));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        public void read(ResultSet rs, int index, Object o) throws SQLException {
+            try {
+                setter.invokeExact(o, rs.getDouble(index));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+    }
+
+    static final class FloatAccessor extends PrimitiveAccessor {
+        FloatAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter, setter);
+        }
+
+        public void bind(PreparedStatement preparedStatement, int index, Object o) throws SQLException {
+            try {
+                preparedStatement.setFloat(index, (float) getter.invokeExact(o));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        public void read(ResultSet rs, int index, Object o) throws SQLException {
+            try {
+                setter.invokeExact(o, rs.getFloat(index));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+    }
+
+    static final class ShortAccessor extends PrimitiveAccessor {
+        ShortAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter, setter);
+        }
+
+        public void bind(PreparedStatement preparedStatement, int index, Object o) throws SQLException {
+            try {
+                preparedStatement.setShort(index, (short) getter.invokeExact(o));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        public void read(ResultSet rs, int index, Object o) throws SQLException {
+            try {
+                setter.invokeExact(o, rs.getShort(index));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+    }
+
+    static final class ByteAccessor extends PrimitiveAccessor {
+        ByteAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter, setter);
+        }
+
+        public void bind(PreparedStatement preparedStatement, int index, Object o) throws SQLException {
+            try {
+                preparedStatement.setByte(index, (byte) getter.invokeExact(o));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        public void read(ResultSet rs, int index, Object o) throws SQLException {
+            try {
+                setter.invokeExact(o, rs.getByte(index));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+    }
+
+    static final class BooleanAccessor extends PrimitiveAccessor {
+        BooleanAccessor(MethodHandle getter, MethodHandle setter) {
+            super(getter, setter);
+        }
+
+        public void bind(PreparedStatement preparedStatement, int index, Object o) throws SQLException {
+            try {
+                preparedStatement.setBoolean(index, (boolean) getter.invokeExact(o));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+
+        public void read(ResultSet rs, int index, Object o) throws SQLException {
+            try {
+                setter.invokeExact(o, rs.getBoolean(index));
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+    }
+}
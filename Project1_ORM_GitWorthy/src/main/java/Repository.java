@@ -1,18 +1,38 @@
-import Annotations.Entity;
-import Annotations.FakeConstructor;
-import Annotations.PrimaryKey;
-import Annotations.Property;
-
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Repository<O> {
-    //java.sql.Connection object allowing data to be stored into a SQL database
-    protected Connection connection;
+    //Default number of rows sent to the database per batch by createAll
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    //Most placeholders a single statement may contain on MariaDB/MySQL
+    public static final int MAX_STATEMENT_PARAMETERS = 65535;
+
+    //Default packet size multi-row INSERTs are kept under, matching the client's default max_allowed_packet
+    public static final long DEFAULT_MAX_ALLOWED_PACKET = 4L * 1024 * 1024;
+
+    //Key counts that readAllById IN lists are padded up to, so only a few statements are ever prepared per entity
+    private static final int[] READ_BY_ID_BUCKETS = {1, 4, 16, 64, 256};
+
+    //Default number of rows the driver fetches from the server at a time when streaming
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    //Connection pool that each operation borrows a java.sql.Connection from to store data into a SQL database
+    protected ORMConnectionPool connectionPool;
 
     //Instance of generic O used for many methods
     private O object;
@@ -23,6 +43,9 @@ public class Repository<O> {
     //Method object holding the fake constructor used for methods that return variable length data structures of O
     private Method fakeConstructor;
 
+    //Metadata shared by every repository for the generic's class
+    private EntityMetadata entityMetadata;
+
     //Repository Table object that holds information about storing/retrieving data from SQL table
     //such as fields and respective getter/setter methods
     private Table table;
@@ -34,64 +57,78 @@ public class Repository<O> {
     //Sub table that holds columns with valid getter methods and are not auto-increment primary keys
     private Table writableFields;
 
+    //SQL statements and parameter layout for this repository's entity, built once per entity class
+    private SQLPlan sqlPlan;
+
     //Boolean to check if table object is valid
     private boolean tableInitialized;
 
     //Boolean that tells whether the repository will leave console breadcrumbs
     private boolean breadCrumbsOn;
 
-    //Constructor taking in only a generic
-    public Repository(O o) {
-        connection = ORMConnectionManager.getConnection();
+    //Largest statement in bytes that multi-row INSERTs are sized to, should not exceed the server's max_allowed_packet
+    private long maxAllowedPacket = DEFAULT_MAX_ALLOWED_PACKET;
 
-        this.setObject(o);
+    //Number of rows fetched at a time by stream and iterator
+    private int fetchSize = DEFAULT_FETCH_SIZE;
 
-        tableInitialized = this.initializeTable();
-        setValidGetterFields(this.table.getValidGetterFields());
-        setValidSetterFields(this.table.getValidSetterFields());
-        setWritableFields(this.getValidGetterFields().getWriteableFields());
+    //Identity map of the open session, or null if no session is open
+    private ORMSession<O> session;
 
-        reader = new SQLResultSetReader<>();
+    //Whether reads go through the shared second-level cache, ORMEntityCache
+    private boolean entityCacheOn;
 
-        breadCrumbsOn = false;
+    //Constructor taking in only a generic
+    public Repository(O o) {
+        connectionPool = ORMConnectionManager.getConnectionPool();
+
+        this.initializeRepository(o);
     }
 
     //Constructor taking in a generic and connection string
     public Repository(O o, String connectionString) {
-        connection = ORMConnectionManager.getConnection(connectionString);
-
-        this.setObject(o);
-
-        tableInitialized = this.initializeTable();
-        setValidGetterFields(this.table.getValidGetterFields());
-        setValidSetterFields(this.table.getValidSetterFields());
-
-        reader = new SQLResultSetReader<>();
+        connectionPool = ORMConnectionManager.getConnectionPool(connectionString);
 
-        breadCrumbsOn = false;
+        this.initializeRepository(o);
     }
 
     //Constructor taking in a generic and individual parts of a connection string
     public Repository(O o, String hostname, String port, String dbname, String username, String password) {
-        connection = ORMConnectionManager.getConnection(hostname, port, dbname, username, password);
+        connectionPool = ORMConnectionManager.getConnectionPool(hostname, port, dbname, username, password);
 
+        this.initializeRepository(o);
+    }
+
+    //Method shared by the constructors to look up the table metadata and SQL plan for the generic's class
+    private void initializeRepository(O o) {
         this.setObject(o);
 
         tableInitialized = this.initializeTable();
-        setValidGetterFields(this.table.getValidGetterFields());
-        setValidSetterFields(this.table.getValidSetterFields());
+
+        if (tableInitialized) {
+            setValidGetterFields(entityMetadata.getValidGetterFields());
+            setValidSetterFields(entityMetadata.getValidSetterFields());
+            setWritableFields(entityMetadata.getWritableFields());
+
+            sqlPlan = entityMetadata.getSqlPlan();
+        }
 
         reader = new SQLResultSetReader<>();
 
         breadCrumbsOn = false;
     }
 
+    //Methods that point this repository at the pool for another database - other repositories keep their own pools
     public void connect(String connectionString) {
-        connection = ORMConnectionManager.getConnection(connectionString);
+        connectionPool = ORMConnectionManager.getConnectionPool(connectionString);
     }
 
     public void connect(String hostname, String port, String dbname, String username, String password) {
-        connection = ORMConnectionManager.getConnection(hostname, port, dbname, username, password);
+        connectionPool = ORMConnectionManager.getConnectionPool(hostname, port, dbname, username, password);
+    }
+
+    public ORMConnectionPool getConnectionPool() {
+        return connectionPool;
     }
 
     public O getObject() {
@@ -104,10 +141,18 @@ public class Repository<O> {
 
     public String getTableName() { return table.getTableName(); }
 
+    public EntityMetadata getEntityMetadata() {
+        return entityMetadata;
+    }
+
     public Table getTable() {
         return table;
     }
 
+    public SQLPlan getSqlPlan() {
+        return sqlPlan;
+    }
+
     public Table getValidGetterFields() {
         return validGetterFields;
     }
@@ -124,6 +169,18 @@ public class Repository<O> {
         return breadCrumbsOn;
     }
 
+    public long getMaxAllowedPacket() {
+        return maxAllowedPacket;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public boolean isEntityCacheOn() {
+        return entityCacheOn;
+    }
+
     @Override
     public String toString() {
         return this.getTable().toString() + "\nFake constructor: " +
@@ -138,106 +195,16 @@ public class Repository<O> {
         this.fakeConstructor = fakeConstructor;
     }
 
-    //Method to fill the table object with fields and methods - returns false if a major step fails
+    //Method to fill the table object with fields and methods - returns false if the class is not an entity
+    //The reflection is only done for the first repository of a class; later ones reuse the shared metadata
     public boolean initializeTable() {
-        //Start by checking that the class has the Entity annotation and setting table name
-        String tableName;
-
-        if (!this.object.getClass().isAnnotationPresent(Entity.class)) {
-            System.out.println("Class not entity.");
-            return false;
-        }
-
-        tableName = this.object.getClass().getAnnotation(Entity.class).tableName();
-
-        //Get class fields (private and public)
-        Field[] fields = this.object.getClass().getDeclaredFields();
-
-        //Get class methods
-        Method[] methods = this.object.getClass().getMethods();
-
-        //Create and populate a Table object with Columns
-        this.table = new Table(tableName);
+        this.entityMetadata = EntityMetadataRegistry.getMetadata(this.object.getClass());
 
-        //Temporary Column object to store fieldName and Property before attempting to store into table
-        Column column;
-
-        //Temporary fieldName string & fieldHash int
-        String fieldName;
-        int fieldHash;
-
-        for (Field f : fields) {
-            //Check that the field has the Property annotation
-            if (f.isAnnotationPresent(Property.class)) {
-                column = new Column();
-                column.setFieldName(f.getAnnotation(Property.class).fieldName());
-                column.setProperty(f);
-
-                //Attempt to add column to table
-                table.add(column);
-            }
-        }
-
-        //Iterate through the table columns and find valid getter and setter methods appropriate for a given field
-        for (int index = 0; index < table.size(); index++) {
-            //Get a list of potential getter and setter methods, based on either use of Getter/Setter annotation or
-            // method name
-            List<Method> potentialGetterMethods = table.get(index).getPotentialGetter(methods);
-            List<Method> potentialSetterMethods = table.get(index).getPotentialSetter(methods);
-
-            //Find first valid getter/setter method out of returned list
-            Method getter = table.get(index).getValidGetter(potentialGetterMethods);
-            Method setter = table.get(index).getValidSetter(potentialSetterMethods);
-
-            //Set the column's getter/setter method to the appropriate valid methods, if found
-            table.get(index).setGetter(getter);
-            table.get(index).setSetter(setter);
-        }
-
-        //Iterate through the class methods and find one with the annotation FakeConstructor to add to the repository
-        for (Method m : methods) {
-            if (m.isAnnotationPresent(FakeConstructor.class)) {
-                if (this.isValidFakeConstructor(this.object, m)) {
-                    this.setFakeConstructor(m);
-                    break;
-                }
-            }
-        }
-
-/*
-        //Iterate through methods to find getters/setters
-        //Add them to appropriate column in table if fieldNames match
-        for (Method m : methods) {
-            //Check that the field has the Getter annotation
-            if (m.isAnnotationPresent(Getter.class)) {
-                //Check that the column exists by checking against field name hash
-                fieldName = m.getAnnotation(Getter.class).fieldName();
-                fieldHash = fieldName.hashCode();
-
-                for (Column c : table.getColumns()) {
-                    //Add Getter method to Column if field name found
-                    if (fieldHash == c.getFieldHash()) {
-                        c.setGetter(m);
-                    }
-                }
-            }
-            //Check that the field has the Setter annotation
-            else if (m.isAnnotationPresent(Setter.class)) {
-                //Check that the column exists by checking against field name hash
-                fieldName = m.getAnnotation(Setter.class).fieldName();
-                fieldHash = fieldName.hashCode();
+        this.table = entityMetadata.getTable();
+        this.setFakeConstructor(entityMetadata.getFakeConstructor());
 
-                for (Column c : table.getColumns()) {
-                    //Add Setter method to Column if field name found
-                    if (fieldHash == c.getFieldHash()) {
-                        c.setSetter(m);
-                    }
-                }
-            }
-        }
-*/
-        //Return true if table initialization was successful
-        return true;
+        //Return true if the class is an entity with table metadata
+        return entityMetadata.isEntity();
     }
 
     public void setValidGetterFields(Table validGetterFields) {
@@ -262,6 +229,20 @@ public class Repository<O> {
         this.breadCrumbsOn = breadCrumbsOn;
     }
 
+    public void setMaxAllowedPacket(long maxAllowedPacket) {
+        this.maxAllowedPacket = maxAllowedPacket;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    //Turning the second-level cache on is meant for read-heavy tables that are written through repositories only,
+    //as changes made to the table by anything else are not seen until the cached entries expire
+    public void setEntityCacheOn(boolean entityCacheOn) {
+        this.entityCacheOn = entityCacheOn;
+    }
+
     public boolean isTableInitialized() {
         return tableInitialized;
     }
@@ -273,16 +254,7 @@ public class Repository<O> {
     //Method to test whether a given Method is a valid fake constructor - i.e. it returns the generic type and
     // has no parameters
     public boolean isValidFakeConstructor(O o, Method m) {
-        //Get array of potential fake constructor parameters
-        Class[] paramTypes = m.getParameterTypes();
-
-        //If parameter list is NOT empty, return false
-        if (paramTypes.length != 0) {
-            return false;
-        }
-
-        //Return whether the generic type matches the potential fake constructor return type
-        return o.getClass() == m.getReturnType();
+        return EntityMetadata.isValidFakeConstructor(o.getClass(), m);
     }
 
     //Method to test whether this repository has a valid fake constructor method that instantiates a new object of
@@ -297,233 +269,1011 @@ public class Repository<O> {
         return isValidFakeConstructor(o, this.fakeConstructor);
     }
 
-    //Method that prints out given string to console if the breadCrumbs variable is true
+    //Method to test whether this repository can create new objects of the generic type for the rows it reads, through a
+    //constructor, static factory or fake constructor (see EntityInstantiator)
+    public boolean canInstantiate() {
+        return tableInitialized && entityMetadata.getInstantiator() != null;
+    }
+
+    //Method that returns whether breadcrumbs are printed, either because they are on for this repository or because
+    //ORMTracer is at DEBUG level or above
+    public boolean isBreadCrumbEnabled() {
+        return breadCrumbsOn || ORMTracer.isEnabled(ORMTracer.Level.DEBUG);
+    }
+
+    //Method that prints out given string to console if breadcrumbs are enabled
     public void breadCrumb(String s) {
-        if (this.isBreadCrumbsOn()) System.out.println(s);
+        if (this.isBreadCrumbEnabled()) ORMTracer.emit(s);
     }
 
-    //Method to perform basic create operation
-    public O create(O o) {
-        this.breadCrumb("");
-        //Check if main table is initialized
-        if (!this.isTableInitialized()) {
-            this.breadCrumb("Create failed: table not initialized");
+    //Methods that print out a message with each "{}" replaced by an argument, formatting it only if breadcrumbs are
+    //enabled, so the hot path does not build strings or call toString when they are off
+    public void breadCrumb(String format, Object arg) {
+        if (this.isBreadCrumbEnabled()) ORMTracer.emit(ORMTracer.format(format, arg));
+    }
+
+    public void breadCrumb(String format, int arg) {
+        if (this.isBreadCrumbEnabled()) ORMTracer.emit(ORMTracer.format(format, arg));
+    }
+
+    public void breadCrumb(String format, int arg1, int arg2) {
+        if (this.isBreadCrumbEnabled()) ORMTracer.emit(ORMTracer.format(format, arg1, arg2));
+    }
+
+    //Method that prints out the message built by a supplier if breadcrumbs are enabled
+    public void breadCrumb(Supplier<String> messageSupplier) {
+        if (this.isBreadCrumbEnabled()) ORMTracer.emit(messageSupplier.get());
+    }
+
+    //Method to open a session on this repository, after which reads of the same primary key return the same instance
+    //without going back to the database until the session is ended; an already open session is kept as is
+    public ORMSession<O> beginSession() {
+        if (session == null) {
+            session = new ORMSession<>();
+            this.breadCrumb("Session started");
+        }
+
+        return session;
+    }
+
+    //Method to close the open session and drop its identity map
+    public void endSession() {
+        if (session != null) {
+            session.clear();
+            session = null;
+            this.breadCrumb("Session ended");
+        }
+    }
+
+    public boolean isSessionActive() {
+        return session != null;
+    }
+
+    public ORMSession<O> getSession() {
+        return session;
+    }
+
+    //Method to return whether a key value is of the primary key's type, treating primitive keys as their wrapper type
+    private boolean isPrimaryKeyType(Object key) {
+        Column primaryKeyColumn = (sqlPlan == null) ? null : sqlPlan.getPrimaryKeyColumn();
+
+        if (primaryKeyColumn == null) {
+            return false;
+        }
+
+        Class<?> type = primaryKeyColumn.getProperty().getType();
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() == key.getClass() : type == key.getClass();
+    }
+
+    //Method to return the primary key value of an object through the primary key column's getter, or null if the
+    //entity has no valid primary key or the getter fails
+    protected Object getPrimaryKeyValue(O o) {
+        Column primaryKeyColumn = (sqlPlan == null) ? null : sqlPlan.getPrimaryKeyColumn();
+
+        if (primaryKeyColumn == null || o == null) {
             return null;
         }
 
-        //Check if the object passed in is null
-        if (o == null) {
-            this.breadCrumb("Create failed: object passed in null");
+        try {
+            return primaryKeyColumn.getValue(o);
+        } catch (RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
             return null;
         }
+    }
 
-        //Create SQL string generated by SQLStringScriptor
-        String sql = SQLStringScriptor.makeCreateSQLString(this);
-        this.breadCrumb("Generated SQL String: " + sql);
+    //Method to copy the values of an object's read columns into an array for the second-level cache, or return null
+    //if a read column has no getter to copy it with
+    protected Object[] getReadColumnValues(O o) {
+        Column[] readColumns = sqlPlan.getReadColumns();
+        Object[] values = new Object[readColumns.length];
 
-        //Check if SQL string creation failed and returned null
-        if (sql.equals("")) {
-            this.breadCrumb("Create failed: generated SQL string empty");
+        try {
+            for (int i = 0; i < readColumns.length; i++) {
+                if (readColumns[i].getGetter() == null) {
+                    return null;
+                }
+
+                values[i] = readColumns[i].getValue(o);
+            }
+        } catch (RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
             return null;
         }
 
-        //Declare PreparedStatement object to be run
-        PreparedStatement preparedStatement;
+        return values;
+    }
+
+    //Method to set an array of read column values from the second-level cache on an object through the column setters,
+    //or create a new object from them if the entity has columns without setters and is instantiated from all of them
+    @SuppressWarnings("unchecked")
+    protected O setReadColumnValues(O o, Object[] values) {
+        Column[] readColumns = sqlPlan.getReadColumns();
 
         try {
-            //Store the primary key field
-            Column primaryKeyColumn = this.getValidSetterFields().getPrimaryKeyField();
-            this.breadCrumb("Primary key field: " + primaryKeyColumn);
-            //Check if the primary key column was in valid setter list and if primary key field has autoIncrement set
-            // true; set statement to return generated keys if so
-            if (primaryKeyColumn != null && primaryKeyColumn.getProperty().getAnnotation(PrimaryKey.class).autoIncrement()) {
-                preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-                this.breadCrumb("Auto-increment - generating keys");
+            if (!entityMetadata.isFilledInPlace()) {
+                return (O) entityMetadata.getInstantiator().newInstance(values);
             }
-            else {
-                //Attempt to create a PreparedStatement with the generated SQL string
-                preparedStatement = connection.prepareStatement(sql, Statement.NO_GENERATED_KEYS);
-                this.breadCrumb("Non-auto-increment - not generating keys");
+
+            for (int i = 0; i < readColumns.length; i++) {
+                readColumns[i].setValue(o, values[i]);
             }
+        } catch (RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            return null;
+        }
 
-            //Attempt to parameterize the statement
-            preparedStatement = SQLPreparedStatementScriptor.prepareCreateStatement(this, preparedStatement, o);
-            this.breadCrumb("Prepared statement generated: " + preparedStatement);
+        return o;
+    }
 
-            //Check if the prepared statement was set to null due to exceptions
-            if (preparedStatement == null) {
-                this.breadCrumb("Create failed: prepared statement null");
-                return null;
+    //Method to copy the values of an object's write columns into an array, used as the snapshot that dirty checking
+    //compares against; returns null if a getter fails
+    protected Object[] getWriteColumnValues(O o) {
+        Column[] writeColumns = sqlPlan.getWriteColumns();
+        Object[] values = new Object[writeColumns.length];
+
+        try {
+            for (int i = 0; i < writeColumns.length; i++) {
+                Object value = writeColumns[i].getValue(o);
+
+                //Copy byte arrays so changes made to the object's array in place are still detected
+                values[i] = (value instanceof byte[]) ? ((byte[]) value).clone() : value;
             }
+        } catch (RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            return null;
+        }
 
-            //Attempt to execute the prepared statement
-            preparedStatement.executeUpdate();
-            this.breadCrumb("Create executed");
+        return values;
+    }
 
-            //Check if primary key column was in valid setter list
-            if (primaryKeyColumn != null) {
-                //Check if primary key field has autoIncrement set true; attempt to set primary key field to generated
-                // key if so
-                if (primaryKeyColumn.getProperty().getAnnotation(PrimaryKey.class).autoIncrement()) {
-                    ResultSet keys = preparedStatement.getGeneratedKeys();
-                    this.breadCrumb("Generated keys");
+    //Method to compare two arrays of write column values, returning a bitmask with bit i set if column i differs
+    protected static long getChangedColumns(Object[] snapshot, Object[] currentValues) {
+        long changedColumns = 0;
 
-                    //Check if there are any generated keys
-                    if (keys.next()) {
-                        o = reader.readGeneratedKeys(primaryKeyColumn, keys, o);
-                    }
-                }
+        for (int i = 0; i < currentValues.length && i < Long.SIZE; i++) {
+            if (!Objects.deepEquals(snapshot[i], currentValues[i])) {
+                changedColumns |= 1L << i;
             }
+        }
 
-            //Return inserted object if successful
-            return o;
-        } catch (SQLException e) {
-            //Return null if unsuccessful
-            ORMExceptionLogger.getExceptionLogger().log(e);
-            this.breadCrumb("SQL exception thrown");
-            return null;
+        return changedColumns;
+    }
+
+    //Method to map an object to its primary key in the open session and record a snapshot of its values
+    private void registerInSession(Object primaryKey, O o) {
+        session.put(primaryKey, o);
+        session.putSnapshot(o, this.getWriteColumnValues(o));
+    }
+
+    //Method to store an object's current values in the second-level cache if it is turned on for this repository
+    private void cacheEntity(Object primaryKey, O o) {
+        this.cacheEntity(primaryKey, o, Long.MAX_VALUE);
+    }
+
+    //Method to store the values of an object read from the database in the second-level cache, unless the row was
+    //invalidated after the cache stamp taken before the read
+    private void cacheEntity(Object primaryKey, O o, long cacheStamp) {
+        if (entityCacheOn && primaryKey != null) {
+            ORMEntityCache.getEntityCache().put(entityMetadata.getEntityClass(), primaryKey, this.getReadColumnValues(o),
+                    cacheStamp);
         }
     }
 
-    public O read(O o, Object obj) {
-        //Check if main table is initialized
-        if (!this.isTableInitialized()) {
-            this.breadCrumb("Read failed: table not initialized");
-            return null;
+    //Method called once an object has been inserted: maps the new row's key to the object if a session is open, and
+    //caches its values
+    void afterCreate(O o) {
+        Object primaryKey = this.getPrimaryKeyValue(o);
+        if (session != null) {
+            this.registerInSession(primaryKey, o);
         }
+        this.cacheEntity(primaryKey, o);
+    }
 
-        //Check if the object passed in is null
-        if (o == null) {
-            this.breadCrumb("Read failed: object passed in null");
-            return null;
+    //Method called once an object has been written by an update: maps the key to the object if a session is open, as
+    //it now holds the row's values, and records the values written (if known) as its new snapshot
+    //The cached entry is replaced, and is dropped even if this repository does not read through the cache, as others may
+    void afterUpdate(O o, Object[] writtenValues) {
+        Object primaryKey = this.getPrimaryKeyValue(o);
+        if (session != null) {
+            session.put(primaryKey, o);
+            session.putSnapshot(o, writtenValues != null ? writtenValues : this.getWriteColumnValues(o));
         }
 
-        //Check if the given object matches the type of the main table's primary key field
-        Column primaryKeyField  = this.table.getPrimaryKeyField();
-        if (primaryKeyField.getProperty().getType() != obj.getClass()) {
-            this.breadCrumb("Value type did not match primary key type");
-            return null;
+        ORMEntityCache.getEntityCache().invalidate(entityMetadata.getEntityClass(), primaryKey);
+        this.cacheEntity(primaryKey, o);
+    }
+
+    //Method called once an object's row has been deleted: drops its key from the session and second-level cache
+    void afterDelete(O o) {
+        Object primaryKey = this.getPrimaryKeyValue(o);
+        if (session != null) {
+            session.remove(primaryKey);
         }
+        ORMEntityCache.getEntityCache().invalidate(entityMetadata.getEntityClass(), primaryKey);
+    }
 
-        try {
-            this.table.getPrimaryKeyField().getSetter().invoke(o, obj);
-        } catch (IllegalAccessException | InvocationTargetException e) {
-            ORMExceptionLogger.getExceptionLogger().log(e);
-            return null;
+    //Method to start timing an operation for the metrics registry, reported under this repository's table name
+    private OperationTimer startOperation(String operation) {
+        if (!ORMMetrics.isEnabled()) {
+            return OperationTimer.NOOP;
         }
 
-        return read(o);
+        String tableName = (entityMetadata == null || entityMetadata.getTableName() == null)
+                ? this.object.getClass().getSimpleName() : entityMetadata.getTableName();
+        return ORMMetrics.startOperation(tableName, operation);
     }
 
-    //Method to perform basic read operation, taking in a valid primary key value
-    public O read(O o) {
+    //Method that borrows a connection from this repository's pool for the duration of a single operation
+    //The connection must be closed afterward to return it to the pool
+    protected PooledConnection borrowConnection() throws SQLException {
+        if (connectionPool == null) {
+            throw new SQLException("Repository has no connection pool");
+        }
+
+        return connectionPool.borrowConnection();
+    }
+
+    //Method to perform basic create operation
+    public O create(O o) {
+        OperationTimer timer = this.startOperation("create");
+        try {
+            return this.create(o, timer);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private O create(O o, OperationTimer timer) {
+        this.breadCrumb("");
         //Check if main table is initialized
         if (!this.isTableInitialized()) {
-            this.breadCrumb("Read failed: table not initialized");
+            this.breadCrumb("Create failed: table not initialized");
             return null;
         }
 
         //Check if the object passed in is null
         if (o == null) {
-            this.breadCrumb("Read failed: object passed in null");
+            this.breadCrumb("Create failed: object passed in null");
             return null;
         }
 
-        //Create SQL string generated by SQLStringScriptor
-        String sql = SQLStringScriptor.makeReadSQLString(this);
-        this.breadCrumb("Generated SQL String: " + sql);
+        //Get SQL string precomputed in the repository's SQL plan
+        String sql = sqlPlan.getCreateSQL();
+        this.breadCrumb("Generated SQL String: {}", sql);
 
         //Check if SQL string creation failed and returned null
         if (sql.equals("")) {
-            this.breadCrumb("Read failed: generated SQL string empty");
+            this.breadCrumb("Create failed: generated SQL string empty");
             return null;
         }
 
-        //Declare PreparedStatement object to be run
-        PreparedStatement preparedStatement;
+        //Store the primary key field that receives generated keys, if any
+        Column primaryKeyColumn = sqlPlan.getGeneratedKeyColumn();
+        this.breadCrumb("Primary key field: {}", primaryKeyColumn);
 
-        try {
-            //Attempt to create a PreparedStatement with the generated SQL string
-            preparedStatement = connection.prepareStatement(sql);
+        //Check if the primary key column was in valid setter list and if primary key field has autoIncrement set
+        // true; set statement to return generated keys if so
+        int generatedKeys;
+        if (sqlPlan.isGeneratingKeys()) {
+            generatedKeys = Statement.RETURN_GENERATED_KEYS;
+            this.breadCrumb("Auto-increment - generating keys");
+        }
+        else {
+            generatedKeys = Statement.NO_GENERATED_KEYS;
+            this.breadCrumb("Non-auto-increment - not generating keys");
+        }
 
-            //Attempt to parameterize the statement
-            preparedStatement = SQLPreparedStatementScriptor.prepareReadStatement(this, preparedStatement, o);
-            this.breadCrumb("Prepared statement generated: " + preparedStatement);
+        //Borrow a connection and get a cached PreparedStatement for the generated SQL string
+        try (PooledConnection pooledConnection = this.borrowConnection()) {
+            PreparedStatement preparedStatement = pooledConnection.prepareStatement(sql, generatedKeys);
 
-            //Check if the prepared statement was set to null due to exceptions
-            if (preparedStatement == null) {
-                this.breadCrumb("Read failed: prepared statement null");
+            //Attempt to parameterize the statement and check if it was set to null due to exceptions
+            if (SQLPreparedStatementScriptor.prepareCreateStatement(this, preparedStatement, o) == null) {
+                this.breadCrumb("Create failed: prepared statement null");
+                timer.failed();
                 return null;
             }
+            this.breadCrumb("Prepared statement generated: {}", preparedStatement);
+            timer.prepared();
 
-            //Attempt to execute prepared statement and save results to result set
-            ResultSet rs = preparedStatement.executeQuery();
-            this.breadCrumb("Read executed");
+            //Attempt to execute the prepared statement
+            timer.setRows(preparedStatement.executeUpdate());
+            timer.executed();
+            this.breadCrumb("Create executed");
 
-            //Check if the result set is empty and return null if so
-            if (!rs.next()) {
-                this.breadCrumb("Result set empty");
-                return null;
+            //Check if the statement was set to return generated keys; attempt to set primary key field to generated
+            // key if so
+            if (generatedKeys == Statement.RETURN_GENERATED_KEYS) {
+                try (ResultSet keys = preparedStatement.getGeneratedKeys()) {
+                    this.breadCrumb("Generated keys");
+
+                    //Check if there are any generated keys
+                    if (keys.next()) {
+                        o = reader.readGeneratedKeys(primaryKeyColumn, keys, o);
+                    }
+                }
             }
 
-            //Attempt to read data from result set into generic passed in
-            o = reader.readIndividualResultRow(this.getValidSetterFields(), rs, o);
+            //Bring the session and second-level cache up to date
+            this.afterCreate(o);
+            timer.hydrated();
 
-            this.breadCrumb("Object read in: " + o);
-            //Return the filled in generic if successful
+            //Return inserted object if successful
             return o;
         } catch (SQLException e) {
+            //Return null if unsuccessful
+            timer.failed();
             ORMExceptionLogger.getExceptionLogger().log(e);
             this.breadCrumb("SQL exception thrown");
             return null;
         }
     }
 
-    //Method to read all rows from a table and return a list of type generic
-    public List<O> readAll() {
-        //Create list to be returned
-        List<O> results = new ArrayList<>();
+    //Method to insert every object of a collection using JDBC batches of the default batch size
+    public List<O> createAll(Iterable<O> objects) {
+        return createAll(objects, DEFAULT_BATCH_SIZE);
+    }
+
+    //Method to insert every object of a collection using JDBC batches of a given size
+    //For all bulk inserts, each batch is committed as it completes; if a batch fails it is rolled back, earlier batches stay committed and
+    //null is returned. Auto-increment keys are set on the objects through the primary key setter
+    public List<O> createAll(Iterable<O> objects, int batchSize) {
+        return createAll(objects, batchSize, BulkInsertMode.JDBC_BATCH);
+    }
+
+    //Method to insert every object of a collection in groups of at most a given size, using the given insert mode
+    //Multi-row VALUES groups are also cut short as needed to stay under the placeholder limit and maxAllowedPacket
+    public List<O> createAll(Iterable<O> objects, int batchSize, BulkInsertMode mode) {
+        OperationTimer timer = this.startOperation("createAll");
+        try {
+            return this.createAll(objects, batchSize, mode, timer);
+        } finally {
+            timer.stop();
+        }
+    }
 
+    private List<O> createAll(Iterable<O> objects, int batchSize, BulkInsertMode mode, OperationTimer timer) {
         //Check if main table is initialized
         if (!this.isTableInitialized()) {
-            this.breadCrumb("Read failed: table not initialized");
+            this.breadCrumb("Create all failed: table not initialized");
             return null;
         }
 
-        //Check if repository has a fake constructor
-        if (!this.hasValidFakeConstructor(this.getObject())) {
+        //Check if the collection passed in is null
+        if (objects == null) {
+            this.breadCrumb("Create all failed: collection passed in null");
             return null;
         }
 
-        //Create SQL string generated by SQLStringScriptor
-        String sql = SQLStringScriptor.makeReadAllSQLString(this);
-        this.breadCrumb("Generated SQL String: " + sql);
+        //Check that the batch size is usable
+        if (batchSize < 1) {
+            this.breadCrumb("Create all failed: batch size less than 1");
+            return null;
+        }
 
         //Check if SQL string creation failed and returned null
-        if (sql.equals("")) {
-            this.breadCrumb("Read failed: generated SQL string empty");
+        if (sqlPlan.getCreateSQL().equals("")) {
+            this.breadCrumb("Create all failed: generated SQL string empty");
             return null;
         }
 
-        //Declare PreparedStatement object to be run
-        PreparedStatement preparedStatement;
+        //Borrow a connection and turn off auto-commit so each batch is committed as a whole
+        //The pool rolls back anything uncommitted and restores auto-commit when the connection is returned
+        try (PooledConnection pooledConnection = this.borrowConnection()) {
+            pooledConnection.getConnection().setAutoCommit(false);
+            timer.prepared();
+
+            //Binding and executing alternate batch by batch, so both are counted as execution time
+            List<O> created = (mode == BulkInsertMode.MULTI_ROW_VALUES)
+                    ? this.executeMultiRowCreates(pooledConnection, objects, batchSize, true)
+                    : this.executeCreateBatches(pooledConnection, objects, batchSize, true);
+            timer.executed();
+            timer.setRows(created.size());
+            this.breadCrumb("Create all executed: {} rows", created.size());
+
+            //Return inserted objects if successful
+            return created;
+        } catch (SQLException e) {
+            //Return null if unsuccessful
+            timer.failed();
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            this.breadCrumb("SQL exception thrown");
+            return null;
+        }
+    }
 
-        try {
-            //Attempt to create a PreparedStatement with the generated SQL string
-            preparedStatement = connection.prepareStatement(sql);
+    //Method that inserts objects on a given connection with the cached INSERT statement from the SQL plan, sending
+    //them with addBatch/executeBatch in batches of a given size and committing after each batch if asked to
+    //Null objects are skipped; the objects inserted are returned in order
+    List<O> executeCreateBatches(PooledConnection pooledConnection, Iterable<O> objects, int batchSize,
+                                 boolean commitEachBatch) throws SQLException {
+        //Get a cached PreparedStatement for the precomputed INSERT, asking for keys if they are auto-increment
+        int generatedKeys = sqlPlan.isGeneratingKeys() ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS;
+        PreparedStatement preparedStatement = pooledConnection.prepareStatement(sqlPlan.getCreateSQL(), generatedKeys);
 
-            //Attempt to execute prepared statement and save results to result set
-            ResultSet rs = preparedStatement.executeQuery();
+        List<O> created = new ArrayList<>();
+        List<O> batch = new ArrayList<>(Math.min(batchSize, DEFAULT_BATCH_SIZE));
 
-            //Check if the result set is empty and return null if so
-            if (!rs.next()) {
-                this.breadCrumb("Result set empty");
+        try {
+            for (O o : objects) {
+                if (o == null) {
+                    continue;
+                }
+
+                //Attempt to parameterize the statement and add it to the batch
+                if (SQLPreparedStatementScriptor.prepareCreateStatement(this, preparedStatement, o) == null) {
+                    throw new SQLException("Could not parameterize INSERT for " + o);
+                }
+                preparedStatement.addBatch();
+                batch.add(o);
+
+                //Send the batch once it is full
+                if (batch.size() == batchSize) {
+                    this.executeCreateBatch(pooledConnection, preparedStatement, batch, commitEachBatch);
+                    created.addAll(batch);
+                    batch.clear();
+                }
+            }
+
+            //Send any remaining rows
+            if (!batch.isEmpty()) {
+                this.executeCreateBatch(pooledConnection, preparedStatement, batch, commitEachBatch);
+                created.addAll(batch);
+            }
+        } finally {
+            //Make sure a failed batch is not left on the cached statement for its next use
+            preparedStatement.clearBatch();
+        }
+
+        return created;
+    }
+
+    //Method that inserts objects on a given connection with multi-row INSERT statements, committing after each
+    //statement if asked to; null objects are skipped and the objects inserted are returned in order
+    List<O> executeMultiRowCreates(PooledConnection pooledConnection, Iterable<O> objects, int batchSize,
+                                   boolean commitEachBatch) throws SQLException {
+        Column[] writeColumns = sqlPlan.getWriteColumns();
+
+        //Rows per statement are capped by the batch size and by the number of placeholders a statement may hold
+        int rowsPerChunk = batchSize;
+        if (writeColumns.length > 0) {
+            rowsPerChunk = Math.min(rowsPerChunk, MAX_STATEMENT_PARAMETERS / writeColumns.length);
+        }
+
+        //Bytes the statement text itself takes up before any values, and per row
+        long statementBytes = sqlPlan.getCreateSQL().length();
+        long rowOverheadBytes = 4L + 3L * writeColumns.length;
+
+        List<O> created = new ArrayList<>();
+        List<O> chunk = new ArrayList<>(Math.min(rowsPerChunk, DEFAULT_BATCH_SIZE));
+        long chunkBytes = statementBytes;
+
+        for (O o : objects) {
+            if (o == null) {
+                continue;
+            }
+
+            //Estimate this row's contribution to the packet
+            long rowBytes = rowOverheadBytes;
+            for (Column column : writeColumns) {
+                rowBytes += SQLPreparedStatementScriptor.estimateParameterSize(column.getValue(o));
+            }
+
+            //Send what has been gathered so far if this row would push the statement over the packet size
+            if (!chunk.isEmpty() && chunkBytes + rowBytes > maxAllowedPacket) {
+                this.executeMultiRowCreate(pooledConnection, chunk, rowsPerChunk, commitEachBatch);
+                created.addAll(chunk);
+                chunk.clear();
+                chunkBytes = statementBytes;
+            }
+
+            chunk.add(o);
+            chunkBytes += rowBytes;
+
+            //Send the chunk once it is full
+            if (chunk.size() == rowsPerChunk) {
+                this.executeMultiRowCreate(pooledConnection, chunk, rowsPerChunk, commitEachBatch);
+                created.addAll(chunk);
+                chunk.clear();
+                chunkBytes = statementBytes;
+            }
+        }
+
+        //Send any remaining rows
+        if (!chunk.isEmpty()) {
+            this.executeMultiRowCreate(pooledConnection, chunk, rowsPerChunk, commitEachBatch);
+            created.addAll(chunk);
+        }
+
+        return created;
+    }
+
+    //Method that executes one multi-row INSERT and sets generated keys on the chunk's objects in order
+    private void executeMultiRowCreate(PooledConnection pooledConnection, List<O> chunk, int rowsPerChunk,
+                                       boolean commit) throws SQLException {
+        int generatedKeys = sqlPlan.isGeneratingKeys() ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS;
+
+        //Full chunks reuse the plan's statement text and the connection's cached statement
+        if (chunk.size() == rowsPerChunk) {
+            PreparedStatement preparedStatement = pooledConnection.prepareStatement(
+                    sqlPlan.getMultiRowCreateSQL(rowsPerChunk), generatedKeys);
+            this.executeMultiRowCreate(pooledConnection, preparedStatement, chunk, commit);
+            return;
+        }
+
+        //Shorter chunks are generated for this statement only, so they bypass the statement cache rather than evict the
+        //statements it holds, and are closed once executed
+        String sql = SQLStringScriptor.makeMultiRowCreateSQLString(entityMetadata, chunk.size());
+        try (PreparedStatement preparedStatement = pooledConnection.getConnection().prepareStatement(sql, generatedKeys)) {
+            this.executeMultiRowCreate(pooledConnection, preparedStatement, chunk, commit);
+        }
+    }
+
+    //Method that parameterizes and executes one multi-row INSERT on a given statement
+    private void executeMultiRowCreate(PooledConnection pooledConnection, PreparedStatement preparedStatement,
+                                       List<O> chunk, boolean commit) throws SQLException {
+        //Attempt to parameterize every row of the statement
+        if (SQLPreparedStatementScriptor.prepareMultiRowCreateStatement(this, preparedStatement, chunk) == null) {
+            throw new SQLException("Could not parameterize multi-row INSERT of " + chunk.size() + " rows");
+        }
+
+        preparedStatement.executeUpdate();
+        this.breadCrumb("Multi-row insert of {} rows executed", chunk.size());
+
+        //Set each object's primary key field to its generated key, if keys are generated
+        if (sqlPlan.isGeneratingKeys()) {
+            try (ResultSet keys = preparedStatement.getGeneratedKeys()) {
+                for (O o : chunk) {
+                    if (!keys.next()) {
+                        break;
+                    }
+
+                    reader.readGeneratedKeys(sqlPlan.getGeneratedKeyColumn(), keys, o);
+                }
+            }
+        }
+
+        if (commit) {
+            pooledConnection.getConnection().commit();
+        }
+    }
+
+    //Method that executes one batch of INSERTs and sets generated keys on the batch's objects in order
+    private void executeCreateBatch(PooledConnection pooledConnection, PreparedStatement preparedStatement, List<O> batch,
+                                    boolean commit) throws SQLException {
+        preparedStatement.executeBatch();
+        this.breadCrumb("Batch of {} executed", batch.size());
+
+        //Set each object's primary key field to its generated key, if keys are generated
+        if (sqlPlan.isGeneratingKeys()) {
+            try (ResultSet keys = preparedStatement.getGeneratedKeys()) {
+                for (O o : batch) {
+                    if (!keys.next()) {
+                        break;
+                    }
+
+                    reader.readGeneratedKeys(sqlPlan.getGeneratedKeyColumn(), keys, o);
+                }
+            }
+        }
+
+        if (commit) {
+            pooledConnection.getConnection().commit();
+        }
+    }
+
+    //Method that updates objects on a given connection with the full UPDATE from the SQL plan, sent in JDBC batches of
+    //a given size; the caller is responsible for committing
+    void executeUpdateBatches(PooledConnection pooledConnection, List<O> objects, int batchSize) throws SQLException {
+        if (sqlPlan.getUpdateSQL().equals("")) {
+            throw new SQLException("No UPDATE statement for " + this.getTableName());
+        }
+
+        this.executeStatementBatches(pooledConnection.prepareStatement(sqlPlan.getUpdateSQL()), objects, batchSize,
+                (preparedStatement, o) -> SQLPreparedStatementScriptor.prepareUpdateStatement(this, preparedStatement, o));
+    }
+
+    //Method that deletes objects on a given connection with the DELETE from the SQL plan, sent in JDBC batches of a
+    //given size; the caller is responsible for committing
+    void executeDeleteBatches(PooledConnection pooledConnection, List<O> objects, int batchSize) throws SQLException {
+        if (sqlPlan.getDeleteSQL().equals("")) {
+            throw new SQLException("No DELETE statement for " + this.getTableName());
+        }
+
+        this.executeStatementBatches(pooledConnection.prepareStatement(sqlPlan.getDeleteSQL()), objects, batchSize,
+                (preparedStatement, o) -> SQLPreparedStatementScriptor.prepareDeleteStatement(this, preparedStatement, o));
+    }
+
+    //Method that parameterizes a statement once per object with a given function and sends it in batches
+    private void executeStatementBatches(PreparedStatement preparedStatement, List<O> objects, int batchSize,
+                                         BiFunction<PreparedStatement, O, PreparedStatement> prepare) throws SQLException {
+        int batched = 0;
+
+        try {
+            for (O o : objects) {
+                //Attempt to parameterize the statement and add it to the batch
+                if (prepare.apply(preparedStatement, o) == null) {
+                    throw new SQLException("Could not parameterize statement for " + o);
+                }
+                preparedStatement.addBatch();
+
+                //Send the batch once it is full
+                if (++batched == batchSize) {
+                    preparedStatement.executeBatch();
+                    batched = 0;
+                }
+            }
+
+            //Send any remaining rows
+            if (batched > 0) {
+                preparedStatement.executeBatch();
+            }
+        } finally {
+            //Make sure a failed batch is not left on the cached statement for its next use
+            preparedStatement.clearBatch();
+        }
+    }
+
+    public O read(O o, Object obj) {
+        //Check if main table is initialized
+        if (!this.isTableInitialized()) {
+            this.breadCrumb("Read failed: table not initialized");
+            return null;
+        }
+
+        //Check if the object passed in is null
+        if (o == null) {
+            this.breadCrumb("Read failed: object passed in null");
+            return null;
+        }
+
+        //Check if the table has a primary key field with a setter to store the given value into
+        Column primaryKeyField = sqlPlan.getPrimaryKeyColumn();
+        if (primaryKeyField == null || primaryKeyField.getSetter() == null) {
+            this.breadCrumb("Read failed: no settable primary key field");
+            return null;
+        }
+
+        //Check if the primary key value passed in is null
+        if (obj == null) {
+            this.breadCrumb("Read failed: primary key value passed in null");
+            return null;
+        }
+
+        //Check if the given object matches the type of the main table's primary key field
+        if (!this.isPrimaryKeyType(obj)) {
+            this.breadCrumb("Value type did not match primary key type");
+            return null;
+        }
+
+        try {
+            primaryKeyField.setValue(o, obj);
+        } catch (RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            return null;
+        }
+
+        return read(o);
+    }
+
+    //Method to perform basic read operation, taking in a valid primary key value
+    public O read(O o) {
+        OperationTimer timer = this.startOperation("read");
+        try {
+            return this.read(o, timer);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private O read(O o, OperationTimer timer) {
+        //Check if main table is initialized
+        if (!this.isTableInitialized()) {
+            this.breadCrumb("Read failed: table not initialized");
+            return null;
+        }
+
+        //Check if the object passed in is null
+        if (o == null) {
+            this.breadCrumb("Read failed: object passed in null");
+            return null;
+        }
+
+        //Return the instance already loaded for this primary key if a session is open and has one
+        Object primaryKey = (session != null || entityCacheOn) ? this.getPrimaryKeyValue(o) : null;
+        if (session != null) {
+            O loaded = session.get(primaryKey);
+            if (loaded != null) {
+                this.breadCrumb("Read from session: {}", loaded);
+                timer.setRows(1);
+                return loaded;
+            }
+        }
+
+        //Fill the object in from the second-level cache if it is turned on and has the row
+        if (entityCacheOn) {
+            Object[] values = ORMEntityCache.getEntityCache().get(entityMetadata.getEntityClass(), primaryKey);
+            O cached = (values == null) ? null : this.setReadColumnValues(o, values);
+            if (cached != null) {
+                o = cached;
+                this.breadCrumb("Read from entity cache: {}", o);
+
+                if (session != null) {
+                    this.registerInSession(primaryKey, o);
+                }
+                timer.setRows(1);
+                return o;
+            }
+        }
+
+        //Take the cache stamp before reading, so the values read are not cached if the row is updated meanwhile
+        long cacheStamp = ORMEntityCache.getEntityCache().getStamp();
+
+        //Get SQL string precomputed in the repository's SQL plan
+        String sql = sqlPlan.getReadSQL();
+        this.breadCrumb("Generated SQL String: {}", sql);
+
+        //Check if SQL string creation failed and returned null
+        if (sql.equals("")) {
+            this.breadCrumb("Read failed: generated SQL string empty");
+            return null;
+        }
+
+        //Borrow a connection and get a cached PreparedStatement for the generated SQL string
+        try (PooledConnection pooledConnection = this.borrowConnection()) {
+            PreparedStatement preparedStatement = pooledConnection.prepareStatement(sql);
+
+            //Attempt to parameterize the statement and check if it was set to null due to exceptions
+            if (SQLPreparedStatementScriptor.prepareReadStatement(this, preparedStatement, o) == null) {
+                this.breadCrumb("Read failed: prepared statement null");
+                timer.failed();
                 return null;
             }
+            this.breadCrumb("Prepared statement generated: {}", preparedStatement);
+            timer.prepared();
 
-            //Attempt to read data from result set into a list of type generic
-            results = reader.readAll(this, rs, this.object);
+            //Attempt to execute prepared statement and save results to result set
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                timer.executed();
+                this.breadCrumb("Read executed");
+
+                //Check if the result set is empty and return null if so
+                if (!rs.next()) {
+                    this.breadCrumb("Result set empty");
+                    return null;
+                }
+
+                //Attempt to read data from result set into generic passed in, or into a new object if the entity has
+                //columns without setters and is created from all of its columns at once
+                if (!entityMetadata.isFilledInPlace()) {
+                    o = reader.readRow(this, sqlPlan.getReadColumns(), sqlPlan.getReadColumnIndexes(), rs, o);
+                }
+                else {
+                    o = reader.readIndividualResultRow(this, sqlPlan.getReadColumns(), sqlPlan.getReadColumnIndexes(), rs, o);
+                }
+                timer.hydrated();
+                timer.setRows(1);
+            }
+
+            this.breadCrumb("Object read in: {}", o);
+
+            //Map the key to the object read in if a session is open, and cache its values
+            if (session != null) {
+                this.registerInSession(primaryKey, o);
+            }
+            this.cacheEntity(primaryKey, o, cacheStamp);
+
+            //Return the filled in generic if successful
+            return o;
         } catch (SQLException e) {
+            timer.failed();
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            this.breadCrumb("SQL exception thrown");
+            return null;
+        }
+    }
+
+    //Method to read the rows with the given primary keys, returning them in the order the keys were given
+    public List<O> readAllById(Collection<?> primaryKeys) {
+        return readAllById(primaryKeys, null);
+    }
+
+    //Method to read the rows with the given primary keys using as few IN list queries as possible, returning them in
+    //the order the keys were given, or null if the read failed
+    //Keys with no row, and keys not of the primary key's type, are left out of the results and added to missingKeys
+    //if it is not null
+    public List<O> readAllById(Collection<?> primaryKeys, Collection<Object> missingKeys) {
+        OperationTimer timer = this.startOperation("readAllById");
+        try {
+            return this.readAllById(primaryKeys, missingKeys, timer);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private List<O> readAllById(Collection<?> primaryKeys, Collection<Object> missingKeys, OperationTimer timer) {
+        //Check if main table is initialized
+        if (!this.isTableInitialized()) {
+            this.breadCrumb("Read failed: table not initialized");
+            return null;
+        }
+
+        //Check if the collection passed in is null
+        if (primaryKeys == null) {
+            this.breadCrumb("Read failed: collection passed in null");
+            return null;
+        }
+
+        //Check if repository can create objects for the rows it reads
+        if (!this.canInstantiate()) {
+            this.breadCrumb("Read failed: no constructor, factory or fake constructor to create objects with");
+            return null;
+        }
+
+        //Check if the table has a primary key to query with
+        Column primaryKeyColumn = sqlPlan.getPrimaryKeyColumn();
+        if (primaryKeyColumn == null || sqlPlan.getReadByIdsSQL(1).equals("")) {
+            this.breadCrumb("Read failed: generated SQL string empty");
+            return null;
+        }
+
+        //Sort the distinct keys into ones already loaded in the session and ones that have to be queried
+        Map<Object, O> found = new HashMap<>();
+        List<Object> toQuery = new ArrayList<>();
+        for (Object key : new LinkedHashSet<>(primaryKeys)) {
+            if (key == null || !this.isPrimaryKeyType(key)) {
+                continue;
+            }
+
+            O loaded = (session == null) ? null : session.get(key);
+            if (loaded != null) {
+                found.put(key, loaded);
+            }
+            else {
+                toQuery.add(key);
+            }
+        }
+
+        //Borrow one connection for every chunk
+        if (!toQuery.isEmpty()) {
+            try (PooledConnection pooledConnection = this.borrowConnection()) {
+                timer.prepared();
+                int maxBucket = READ_BY_ID_BUCKETS[READ_BY_ID_BUCKETS.length - 1];
+
+                for (int start = 0; start < toQuery.size(); start += maxBucket) {
+                    List<Object> chunk = toQuery.subList(start, Math.min(start + maxBucket, toQuery.size()));
+                    this.readByIdChunk(pooledConnection, chunk, found);
+                }
+                timer.executed();
+            } catch (SQLException e) {
+                timer.failed();
+                ORMExceptionLogger.getExceptionLogger().log(e);
+                this.breadCrumb("SQL exception thrown");
+                return null;
+            }
+        }
+
+        //Put the results in request order and report keys that were not found
+        List<O> results = new ArrayList<>(primaryKeys.size());
+        for (Object key : primaryKeys) {
+            O result = (key == null) ? null : found.get(key);
+
+            if (result != null) {
+                results.add(result);
+            }
+            else if (missingKeys != null) {
+                missingKeys.add(key);
+            }
+        }
+
+        timer.setRows(results.size());
+        this.breadCrumb("Read by id: {} of {} keys found", results.size(), primaryKeys.size());
+        return results;
+    }
+
+    //Method to run one IN list query for at most the largest bucket of keys, adding the objects read to found
+    private void readByIdChunk(PooledConnection pooledConnection, List<Object> chunk, Map<Object, O> found) throws SQLException {
+        //Pick the smallest bucket that fits the chunk
+        int bucket = READ_BY_ID_BUCKETS[READ_BY_ID_BUCKETS.length - 1];
+        for (int size : READ_BY_ID_BUCKETS) {
+            if (size >= chunk.size()) {
+                bucket = size;
+                break;
+            }
+        }
+
+        String sql = sqlPlan.getReadByIdsSQL(bucket);
+        this.breadCrumb("Generated SQL String: {}", sql);
+        PreparedStatement preparedStatement = pooledConnection.prepareStatement(sql);
+
+        //Attempt to parameterize the statement and check if it was set to null due to exceptions
+        if (SQLPreparedStatementScriptor.prepareReadByIdsStatement(this, preparedStatement, chunk, bucket) == null) {
+            throw new SQLException("Could not parameterize read of " + chunk.size() + " keys");
+        }
+
+        //Read each row into a new object and map it by its primary key, taking the cache stamp before the query
+        long cacheStamp = ORMEntityCache.getEntityCache().getStamp();
+        try (ResultSet rs = preparedStatement.executeQuery()) {
+            Column[] readColumns = sqlPlan.getReadColumns();
+            int[] indexes = reader.resolveReadColumnIndexes(sqlPlan, rs);
+
+            while (rs.next()) {
+                O result = reader.readRow(this, readColumns, indexes, rs, this.object);
+                if (result == null) {
+                    throw new SQLException("Could not read row into " + this.getTableName());
+                }
+
+                Object primaryKey = this.getPrimaryKeyValue(result);
+                if (session != null) {
+                    this.registerInSession(primaryKey, result);
+                }
+                this.cacheEntity(primaryKey, result, cacheStamp);
+
+                found.put(primaryKey, result);
+            }
+        }
+    }
+
+    //Method to read all rows from a table and return a list of type generic
+    public List<O> readAll() {
+        OperationTimer timer = this.startOperation("readAll");
+        try {
+            return this.readAll(timer);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private List<O> readAll(OperationTimer timer) {
+        //Create list to be returned
+        List<O> results = new ArrayList<>();
+
+        //Check if main table is initialized
+        if (!this.isTableInitialized()) {
+            this.breadCrumb("Read failed: table not initialized");
+            return null;
+        }
+
+        //Check if repository can create objects for the rows it reads
+        if (!this.canInstantiate()) {
+            this.breadCrumb("Read failed: no constructor, factory or fake constructor to create objects with");
+            return null;
+        }
+
+        //Get SQL string precomputed in the repository's SQL plan
+        String sql = sqlPlan.getReadAllSQL();
+        this.breadCrumb("Generated SQL String: {}", sql);
+
+        //Check if SQL string creation failed and returned null
+        if (sql.equals("")) {
+            this.breadCrumb("Read failed: generated SQL string empty");
+            return null;
+        }
+
+        //Borrow a connection and get a cached PreparedStatement for the generated SQL string
+        try (PooledConnection pooledConnection = this.borrowConnection()) {
+            PreparedStatement preparedStatement = pooledConnection.prepareStatement(sql);
+
+            //Attempt to execute prepared statement and read data from result set into a list of type generic
+            timer.prepared();
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                timer.executed();
+                results = reader.readAll(this, rs, this.object);
+                timer.hydrated();
+            }
+            timer.setRows(results.size());
+
+            //Check if the result set was empty and return null if so
+            if (results.isEmpty()) {
+                this.breadCrumb("Result set empty");
+                return null;
+            }
+
+            //If a session is open, use the instance already loaded for each key so every key has one instance
+            this.attachToSession(results);
+        } catch (SQLException e) {
+            timer.failed();
             this.breadCrumb("SQL exception thrown");
             ORMExceptionLogger.getExceptionLogger().log(e);
         }
@@ -531,8 +1281,272 @@ public class Repository<O> {
         return results;
     }
 
+    //Method to replace each object read with the instance already loaded for its key in the open session, if any, so
+    //every key has one instance, and to record snapshots for instances loaded for the first time
+    private void attachToSession(List<O> results) {
+        if (session == null) {
+            return;
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            O result = results.get(i);
+            O loaded = session.putIfAbsent(this.getPrimaryKeyValue(result), result);
+
+            //Record a snapshot for instances loaded for the first time
+            if (loaded == result) {
+                session.putSnapshot(result, this.getWriteColumnValues(result));
+            }
+            results.set(i, loaded);
+        }
+    }
+
+    //Method to read one page of at most limit rows in primary key order, skipping the first offset rows, or null if
+    //the read failed
+    //An empty list means there are no rows past the offset; the database still walks every skipped row, so deep pages
+    //get slower and readAfter should be used to walk a whole table
+    public List<O> readPage(int offset, int limit) {
+        OperationTimer timer = this.startOperation("readPage");
+        try {
+            return this.readPage(offset, limit, timer);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private List<O> readPage(int offset, int limit, OperationTimer timer) {
+        //Check if main table is initialized
+        if (!this.isTableInitialized()) {
+            this.breadCrumb("Read failed: table not initialized");
+            return null;
+        }
+
+        //Check if the page bounds are usable
+        if (offset < 0 || limit < 1) {
+            this.breadCrumb("Read failed: invalid page bounds");
+            return null;
+        }
+
+        //Check if repository can create objects for the rows it reads
+        if (!this.canInstantiate()) {
+            this.breadCrumb("Read failed: no constructor, factory or fake constructor to create objects with");
+            return null;
+        }
+
+        //Get SQL string precomputed in the repository's SQL plan
+        String sql = sqlPlan.getReadPageSQL();
+        this.breadCrumb("Generated SQL String: {}", sql);
+
+        //Check if SQL string creation failed and returned null
+        if (sql.equals("")) {
+            this.breadCrumb("Read failed: generated SQL string empty");
+            return null;
+        }
+
+        //Borrow a connection and get a cached PreparedStatement for the generated SQL string
+        try (PooledConnection pooledConnection = this.borrowConnection()) {
+            PreparedStatement preparedStatement = pooledConnection.prepareStatement(sql);
+
+            //Attempt to parameterize the statement and check if it was set to null due to exceptions
+            if (SQLPreparedStatementScriptor.prepareReadPageStatement(preparedStatement, offset, limit) == null) {
+                this.breadCrumb("Read failed: prepared statement null");
+                timer.failed();
+                return null;
+            }
+
+            return this.readRows(preparedStatement, timer);
+        } catch (SQLException e) {
+            timer.failed();
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            this.breadCrumb("SQL exception thrown");
+            return null;
+        }
+    }
+
+    //Method to read at most limit rows whose primary key is greater than lastPrimaryKey, in primary key order, or null
+    //if the read failed
+    //Passing null reads the first rows of the table, and passing the key of the last object read each time walks the
+    //whole table in chunks; each chunk seeks straight to its first key, so it costs the same however deep it is
+    //An empty list means there are no rows after the key
+    public List<O> readAfter(Object lastPrimaryKey, int limit) {
+        OperationTimer timer = this.startOperation("readAfter");
+        try {
+            return this.readAfter(lastPrimaryKey, limit, timer);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private List<O> readAfter(Object lastPrimaryKey, int limit, OperationTimer timer) {
+        //Read the first page if there is no key to start after
+        if (lastPrimaryKey == null) {
+            return this.readPage(0, limit, timer);
+        }
+
+        //Check if main table is initialized
+        if (!this.isTableInitialized()) {
+            this.breadCrumb("Read failed: table not initialized");
+            return null;
+        }
+
+        //Check if the page bounds are usable
+        if (limit < 1) {
+            this.breadCrumb("Read failed: invalid page bounds");
+            return null;
+        }
+
+        //Check if repository can create objects for the rows it reads
+        if (!this.canInstantiate()) {
+            this.breadCrumb("Read failed: no constructor, factory or fake constructor to create objects with");
+            return null;
+        }
+
+        //Check if the key is of the primary key's type
+        if (!this.isPrimaryKeyType(lastPrimaryKey)) {
+            this.breadCrumb("Read failed: key is not of the primary key's type");
+            return null;
+        }
+
+        //Get SQL string precomputed in the repository's SQL plan
+        String sql = sqlPlan.getReadAfterSQL();
+        this.breadCrumb("Generated SQL String: {}", sql);
+
+        //Check if SQL string creation failed and returned null
+        if (sql.equals("")) {
+            this.breadCrumb("Read failed: generated SQL string empty");
+            return null;
+        }
+
+        //Borrow a connection and get a cached PreparedStatement for the generated SQL string
+        try (PooledConnection pooledConnection = this.borrowConnection()) {
+            PreparedStatement preparedStatement = pooledConnection.prepareStatement(sql);
+
+            //Attempt to parameterize the statement and check if it was set to null due to exceptions
+            if (SQLPreparedStatementScriptor.prepareReadAfterStatement(this, preparedStatement, lastPrimaryKey, limit) == null) {
+                this.breadCrumb("Read failed: prepared statement null");
+                timer.failed();
+                return null;
+            }
+
+            return this.readRows(preparedStatement, timer);
+        } catch (SQLException e) {
+            timer.failed();
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            this.breadCrumb("SQL exception thrown");
+            return null;
+        }
+    }
+
+    //Method to execute a parameterized multi-row SELECT and read every row into a list, attached to the open session
+    private List<O> readRows(PreparedStatement preparedStatement, OperationTimer timer) throws SQLException {
+        List<O> results;
+
+        timer.prepared();
+        try (ResultSet rs = preparedStatement.executeQuery()) {
+            timer.executed();
+            results = reader.readAll(this, rs, this.object);
+            timer.hydrated();
+        }
+        timer.setRows(results.size());
+
+        this.attachToSession(results);
+        this.breadCrumb("Read {} rows", results.size());
+        return results;
+    }
+
+    //Method to read all rows from a table one at a time, returning an iterator that holds a connection until it is
+    //exhausted or closed, or null if the read could not be started
+    //Unlike readAll, only the current row is kept in memory, so this works for tables of any size
+    public ResultSetIterator<O> iterator() {
+        //Check if main table is initialized
+        if (!this.isTableInitialized()) {
+            this.breadCrumb("Read failed: table not initialized");
+            return null;
+        }
+
+        //Check if repository can create objects for the rows it reads
+        if (!this.canInstantiate()) {
+            this.breadCrumb("Read failed: no constructor, factory or fake constructor to create objects with");
+            return null;
+        }
+
+        //Get SQL string precomputed in the repository's SQL plan
+        String sql = sqlPlan.getReadAllSQL();
+        this.breadCrumb("Generated SQL String: {}", sql);
+
+        //Check if SQL string creation failed and returned null
+        if (sql.equals("")) {
+            this.breadCrumb("Read failed: generated SQL string empty");
+            return null;
+        }
+
+        PooledConnection pooledConnection = null;
+        PreparedStatement preparedStatement = null;
+
+        //The timer runs until the iterator is closed, so the operation's rows and hydration time include every row read
+        OperationTimer timer = this.startOperation("stream");
+
+        try {
+            pooledConnection = this.borrowConnection();
+
+            //Use a statement of its own rather than a cached one, as it stays open for the life of the iterator
+            //A forward-only, read-only result set with a fetch size lets the driver stream rows instead of buffering
+            //the whole table
+            preparedStatement = pooledConnection.getConnection().prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            preparedStatement.setFetchSize(fetchSize);
+            timer.prepared();
+
+            ResultSet rs = preparedStatement.executeQuery();
+            timer.executed();
+            this.breadCrumb("Streaming read executed");
+
+            return new ResultSetIterator<>(this, reader, pooledConnection, preparedStatement, rs, timer);
+        } catch (SQLException e) {
+            timer.failed();
+            timer.stop();
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            this.breadCrumb("SQL exception thrown");
+
+            //Release anything opened before the failure
+            if (preparedStatement != null) {
+                try {
+                    preparedStatement.close();
+                } catch (SQLException closeException) {
+                    ORMExceptionLogger.getExceptionLogger().log(closeException);
+                }
+            }
+            if (pooledConnection != null) {
+                pooledConnection.close();
+            }
+
+            return null;
+        }
+    }
+
+    //Method to read all rows from a table as a lazily filled stream, or null if the read could not be started
+    //The stream holds a connection until it is closed, so it should be used in a try-with-resources block
+    public Stream<O> stream() {
+        ResultSetIterator<O> iterator = this.iterator();
+
+        if (iterator == null) {
+            return null;
+        }
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
+    }
+
     //Method to perform basic update operation on a given object
     public O update(O o) {
+        OperationTimer timer = this.startOperation("update");
+        try {
+            return this.update(o, timer);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private O update(O o, OperationTimer timer) {
         //Check if main table is initialized
         if (!this.isTableInitialized()) {
             this.breadCrumb("Update failed: table not initialized");
@@ -545,9 +1559,8 @@ public class Repository<O> {
             return null;
         }
 
-        //Create SQL string generated by SQLStringScriptor
-        String sql = SQLStringScriptor.makeUpdateSQLString(this);
-        this.breadCrumb("Generated SQL String: " + sql);
+        //Get SQL string precomputed in the repository's SQL plan
+        String sql = sqlPlan.getUpdateSQL();
 
         //Check if SQL string creation failed and returned null
         if (sql.equals("")) {
@@ -555,29 +1568,55 @@ public class Repository<O> {
             return null;
         }
 
-        //Declare PreparedStatement object to be run
-        PreparedStatement preparedStatement;
+        //If a session is open and has a snapshot of the object, compare against it to find the changed columns
+        Object[] currentValues = null;
+        long changedColumns = -1L;
+        if (session != null && sqlPlan.isPartialUpdatePossible()) {
+            Object[] snapshot = session.getSnapshot(o);
+            currentValues = this.getWriteColumnValues(o);
 
-        try {
-            //Attempt to create a PreparedStatement with the generated SQL string
-            preparedStatement = connection.prepareStatement(sql);
-
-            //Attempt to parameterize the statement
-            preparedStatement = SQLPreparedStatementScriptor.prepareUpdateStatement(this, preparedStatement, o);
-            this.breadCrumb("Prepared statement generated: " + preparedStatement);
-            //Check if the prepared statement was set to null due to exceptions
-            if (preparedStatement == null) {
+            if (snapshot != null && currentValues != null) {
+                changedColumns = getChangedColumns(snapshot, currentValues);
+
+                //Skip the round trip if nothing has changed since the object was loaded or last written
+                if (changedColumns == 0) {
+                    this.breadCrumb("Update skipped: no columns changed");
+                    return o;
+                }
+
+                sql = sqlPlan.getPartialUpdateSQL(changedColumns);
+            }
+        }
+        this.breadCrumb("Generated SQL String: {}", sql);
+
+        //Borrow a connection and get a cached PreparedStatement for the generated SQL string
+        try (PooledConnection pooledConnection = this.borrowConnection()) {
+            PreparedStatement preparedStatement = pooledConnection.prepareStatement(sql);
+
+            //Attempt to parameterize the statement and check if it was set to null due to exceptions
+            PreparedStatement prepared = (changedColumns == -1L)
+                    ? SQLPreparedStatementScriptor.prepareUpdateStatement(this, preparedStatement, o)
+                    : SQLPreparedStatementScriptor.preparePartialUpdateStatement(this, preparedStatement, o, changedColumns);
+            if (prepared == null) {
                 this.breadCrumb("Update failed: prepared statement null");
+                timer.failed();
                 return null;
             }
+            this.breadCrumb("Prepared statement generated: {}", preparedStatement);
+            timer.prepared();
 
             //Attempt to execute the prepared statement
-            preparedStatement.executeUpdate();
-            this.breadCrumb("Create executed");
+            timer.setRows(preparedStatement.executeUpdate());
+            timer.executed();
+            this.breadCrumb("Update executed");
 
-            //Return inserted object if successful
+            //Bring the session and second-level cache up to date
+            this.afterUpdate(o, currentValues);
+
+            //Return updated object if successful
             return o;
         } catch (SQLException e) {
+            timer.failed();
             ORMExceptionLogger.getExceptionLogger().log(e);
             this.breadCrumb("SQL exception thrown");
             return null;
@@ -586,6 +1625,15 @@ public class Repository<O> {
 
     //Method to perform basic delete operation on a given object
     public boolean delete(O o) {
+        OperationTimer timer = this.startOperation("delete");
+        try {
+            return this.delete(o, timer);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private boolean delete(O o, OperationTimer timer) {
         //Check if main table is initialized
         if (!this.isTableInitialized()) {
             this.breadCrumb("Delete failed: table not initialized");
@@ -598,9 +1646,9 @@ public class Repository<O> {
             return false;
         }
 
-        //Create SQL string generated by SQLStringScriptor
-        String sql = SQLStringScriptor.makeDeleteSQLString(this);
-        this.breadCrumb("Generated SQL String: " + sql);
+        //Get SQL string precomputed in the repository's SQL plan
+        String sql = sqlPlan.getDeleteSQL();
+        this.breadCrumb("Generated SQL String: {}", sql);
 
         //Check if SQL string creation failed and returned null
         if (sql.equals("")) {
@@ -608,30 +1656,31 @@ public class Repository<O> {
             return false;
         }
 
-        //Declare PreparedStatement object to be run
-        PreparedStatement preparedStatement;
-
-        try {
-            //Attempt to create a PreparedStatement with the generated SQL string
-            preparedStatement = connection.prepareStatement(sql);
-
-            //Attempt to parameterize the statement
-            preparedStatement = SQLPreparedStatementScriptor.prepareDeleteStatement(this, preparedStatement, o);
-            this.breadCrumb("Prepared statement generated: " + preparedStatement);
+        //Borrow a connection and get a cached PreparedStatement for the generated SQL string
+        try (PooledConnection pooledConnection = this.borrowConnection()) {
+            PreparedStatement preparedStatement = pooledConnection.prepareStatement(sql);
 
-            //Check if the prepared statement was set to null due to exceptions
-            if (preparedStatement == null) {
+            //Attempt to parameterize the statement and check if it was set to null due to exceptions
+            if (SQLPreparedStatementScriptor.prepareDeleteStatement(this, preparedStatement, o) == null) {
                 this.breadCrumb("Delete failed: prepared statement null");
+                timer.failed();
                 return false;
             }
+            this.breadCrumb("Prepared statement generated: {}", preparedStatement);
+            timer.prepared();
 
             //Attempt to execute the prepared statement
-            preparedStatement.executeUpdate();
+            timer.setRows(preparedStatement.executeUpdate());
+            timer.executed();
             this.breadCrumb("Delete executed");
 
+            //Bring the session and second-level cache up to date
+            this.afterDelete(o);
+
             //return true if successful
             return true;
         } catch (SQLException e) {
+            timer.failed();
             ORMExceptionLogger.getExceptionLogger().log(e);
             this.breadCrumb("SQL exception thrown");
             return false;
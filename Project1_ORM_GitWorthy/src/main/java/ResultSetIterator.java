@@ -0,0 +1,122 @@
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+//Class that reads the rows of an open result set into objects one at a time
+//The iterator owns a borrowed connection, an uncached statement and its result set for as long as it is open, so only
+//the current row is held in memory; it closes itself once the last row has been read, and must be closed by the
+//caller (e.g. in a try-with-resources block) if iteration stops early
+//A SQLException while reading ends iteration: it is logged and the iterator closes
+public class ResultSetIterator<T> implements Iterator<T>, AutoCloseable {
+    //Member variables
+    private final Repository<T> repository;
+    private final SQLResultSetReader<T> reader;
+    private final PooledConnection pooledConnection;
+    private final PreparedStatement preparedStatement;
+    private final ResultSet rs;
+    private final Column[] readColumns;
+    private final int[] indexes;
+    private final OperationTimer timer;
+
+    //Whether rs is positioned on a row that has not been returned yet
+    private boolean rowReady;
+    private boolean closed;
+
+    //Constructor taking in the repository whose entity is read, and the connection, statement and result set it owns
+    ResultSetIterator(Repository<T> repository, SQLResultSetReader<T> reader, PooledConnection pooledConnection,
+                      PreparedStatement preparedStatement, ResultSet rs, OperationTimer timer) throws SQLException {
+        this.repository = repository;
+        this.reader = reader;
+        this.pooledConnection = pooledConnection;
+        this.preparedStatement = preparedStatement;
+        this.rs = rs;
+        this.readColumns = repository.getSqlPlan().getReadColumns();
+        this.timer = timer;
+
+        //Resolve the column indexes once for every row
+        this.indexes = reader.resolveReadColumnIndexes(repository.getSqlPlan(), rs);
+
+        this.rowReady = false;
+        this.closed = false;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+
+        if (!rowReady) {
+            try {
+                rowReady = rs.next();
+            } catch (SQLException e) {
+                ORMExceptionLogger.getExceptionLogger().log(e);
+                timer.failed();
+                rowReady = false;
+            }
+
+            //Release the connection as soon as the last row has been read
+            if (!rowReady) {
+                close();
+            }
+        }
+
+        return rowReady;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        rowReady = false;
+
+        //Create a new object for the row and fill it in, or end iteration if it could not be created
+        long hydrateStart = timer.isEnabled() ? System.nanoTime() : 0;
+        T t = reader.readRow(repository, readColumns, indexes, rs, repository.getObject());
+        if (timer.isEnabled()) {
+            timer.addHydrateNanos(System.nanoTime() - hydrateStart);
+            timer.addRows(1);
+        }
+
+        if (t == null) {
+            timer.failed();
+            close();
+            throw new NoSuchElementException("Could not read row into " + repository.getTableName());
+        }
+
+        return t;
+    }
+
+    //Method to close the result set and statement and return the connection to its pool
+    //Calling close more than once has no further effect
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            rs.close();
+        } catch (SQLException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+        }
+
+        try {
+            preparedStatement.close();
+        } catch (SQLException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+        }
+
+        pooledConnection.close();
+        timer.stop();
+    }
+}
@@ -0,0 +1,236 @@
+import Annotations.PrimaryKey;
+import Mapping.EntityMapper;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Class that holds every SQL statement a repository runs for its entity, along with the columns bound to each
+//statement's parameters in order
+//The plan only depends on the entity's Table metadata, so it is built once per entity class along with its
+//EntityMetadata and reused by every CRUD call; an empty SQL string means the operation is not possible for the entity
+public final class SQLPlan {
+    //Maximum number of partial UPDATE statements kept per entity; further column subsets are generated on each use
+    public static final int MAX_PARTIAL_UPDATE_STATEMENTS = 256;
+
+    //SQL statements generated by SQLStringScriptor
+    private final String createSQL;
+    private final String readSQL;
+    private final String readAllSQL;
+    private final String readAllPKsSQL;
+    private final String updateSQL;
+    private final String deleteSQL;
+
+    //SQL statements reading a page of rows by offset, and the rows after a primary key value, in primary key order
+    private final String readPageSQL;
+    private final String readAfterSQL;
+
+    //Columns bound to the INSERT parameters and the SET clause of the UPDATE, in parameter order
+    private final Column[] writeColumns;
+
+    //Columns read from a result set into an object, in select list order
+    private final Column[] readColumns;
+
+    //Result set indexes of the read columns in statements that select them in order, i.e. 1 through readColumns.length
+    private final int[] readColumnIndexes;
+
+    //Column whose getter supplies the WHERE clause parameter, or null if the entity has no valid primary key
+    private final Column primaryKeyColumn;
+
+    //Column whose setter receives auto-increment keys after an INSERT, or null if keys are not generated
+    private final Column generatedKeyColumn;
+
+    //Parameter index of the WHERE clause in the UPDATE statement
+    private final int updateWhereIndex;
+
+    //Metadata the plan was built from, kept to generate multi-row INSERTs on demand
+    private final EntityMetadata metadata;
+
+    //Compile-time generated mapper that binds and reads the columns above directly, or null to use the columns'
+    //accessors and codecs
+    private final EntityMapper<Object> mapper;
+
+    //Multi-row INSERT statements already generated, by row count
+    private final ConcurrentHashMap<Integer, String> multiRowCreateSQL = new ConcurrentHashMap<>();
+
+    //SELECT statements for IN lists of primary keys already generated, by key count
+    private final ConcurrentHashMap<Integer, String> readByIdsSQL = new ConcurrentHashMap<>();
+
+    //UPDATE statements for subsets of the write columns already generated, by changed column bitmask
+    //A wide entity has up to 2^n subsets and the plan lives as long as the process, so this stops growing at
+    //MAX_PARTIAL_UPDATE_STATEMENTS
+    private final ConcurrentHashMap<Long, String> partialUpdateSQL = new ConcurrentHashMap<>();
+
+    //Constructor that builds the plan from an entity's sub tables
+    public SQLPlan(EntityMetadata metadata) {
+        Table validGetterFields = metadata.getValidGetterFields();
+        Table validSetterFields = metadata.getValidSetterFields();
+        Table writableFields = metadata.getWritableFields();
+
+        this.createSQL = SQLStringScriptor.makeCreateSQLString(metadata);
+        this.readSQL = SQLStringScriptor.makeReadSQLString(metadata);
+        this.readAllSQL = SQLStringScriptor.makeReadAllSQLString(metadata);
+        this.readAllPKsSQL = SQLStringScriptor.makeReadAllPKsSQLString(metadata);
+        this.updateSQL = SQLStringScriptor.makeUpdateSQLString(metadata);
+        this.deleteSQL = SQLStringScriptor.makeDeleteSQLString(metadata);
+        this.readPageSQL = SQLStringScriptor.makeReadPageSQLString(metadata);
+        this.readAfterSQL = SQLStringScriptor.makeReadAfterSQLString(metadata);
+
+        this.writeColumns = toArray(writableFields.getColumns());
+        this.readColumns = toArray(metadata.getReadableFields().getColumns());
+
+        this.readColumnIndexes = new int[readColumns.length];
+        for (int i = 0; i < readColumns.length; i++) {
+            readColumnIndexes[i] = i + 1;
+        }
+
+        this.primaryKeyColumn = validGetterFields.hasValidPrimaryKey() ? validGetterFields.getPrimaryKeyField() : null;
+
+        //Keys are only read back if the primary key is auto-increment and can be set on the object
+        Column setterPrimaryKey = validSetterFields.hasValidPrimaryKey() ? validSetterFields.getPrimaryKeyField() : null;
+        if (setterPrimaryKey != null && setterPrimaryKey.getProperty().getAnnotation(PrimaryKey.class).autoIncrement()) {
+            this.generatedKeyColumn = setterPrimaryKey;
+        }
+        else {
+            this.generatedKeyColumn = null;
+        }
+
+        this.updateWhereIndex = writeColumns.length + 1;
+        this.metadata = metadata;
+
+        //The mapper is looked up last as it is checked against the completed plan
+        this.mapper = EntityMappers.findMapper(metadata, this);
+    }
+
+    //Getter methods
+    public String getCreateSQL() {
+        return createSQL;
+    }
+
+    public String getReadSQL() {
+        return readSQL;
+    }
+
+    public String getReadAllSQL() {
+        return readAllSQL;
+    }
+
+    public String getReadAllPKsSQL() {
+        return readAllPKsSQL;
+    }
+
+    public String getUpdateSQL() {
+        return updateSQL;
+    }
+
+    public String getDeleteSQL() {
+        return deleteSQL;
+    }
+
+    public String getReadPageSQL() {
+        return readPageSQL;
+    }
+
+    public String getReadAfterSQL() {
+        return readAfterSQL;
+    }
+
+    //Arrays are returned as-is to keep the hot path allocation free - callers must not modify them
+    public Column[] getWriteColumns() {
+        return writeColumns;
+    }
+
+    public Column[] getReadColumns() {
+        return readColumns;
+    }
+
+    public int[] getReadColumnIndexes() {
+        return readColumnIndexes;
+    }
+
+    public Column getPrimaryKeyColumn() {
+        return primaryKeyColumn;
+    }
+
+    public Column getGeneratedKeyColumn() {
+        return generatedKeyColumn;
+    }
+
+    public int getUpdateWhereIndex() {
+        return updateWhereIndex;
+    }
+
+    public EntityMapper<Object> getMapper() {
+        return mapper;
+    }
+
+    //Method to return the multi-row INSERT for a given number of rows, generating and caching it on first use
+    //Only full chunk sizes should be requested here; one-off sizes can be built with SQLStringScriptor directly
+    public String getMultiRowCreateSQL(int rowCount) {
+        String sql = multiRowCreateSQL.get(rowCount);
+
+        if (sql == null) {
+            sql = multiRowCreateSQL.computeIfAbsent(rowCount,
+                    count -> SQLStringScriptor.makeMultiRowCreateSQLString(metadata, count));
+        }
+
+        return sql;
+    }
+
+    //Method to return the SELECT for an IN list of a given number of primary keys, generating and caching it on first
+    //use; callers should stick to a few fixed key counts so the statements can be reused
+    public String getReadByIdsSQL(int keyCount) {
+        String sql = readByIdsSQL.get(keyCount);
+
+        if (sql == null) {
+            sql = readByIdsSQL.computeIfAbsent(keyCount,
+                    count -> SQLStringScriptor.makeReadByIdsSQLString(metadata, count));
+        }
+
+        return sql;
+    }
+
+    //Method to return whether an UPDATE can be limited to changed columns, which needs one bitmask bit per column
+    public boolean isPartialUpdatePossible() {
+        return !updateSQL.equals("") && writeColumns.length <= Long.SIZE;
+    }
+
+    //Method to return the UPDATE that sets only the write columns in a bitmask, generating and caching it on first use
+    //while the cache has room
+    //A bitmask with every column set returns the full UPDATE
+    public String getPartialUpdateSQL(long changedColumns) {
+        if (writeColumns.length == Long.SIZE ? changedColumns == -1L : changedColumns == (1L << writeColumns.length) - 1) {
+            return updateSQL;
+        }
+
+        String sql = partialUpdateSQL.get(changedColumns);
+
+        if (sql != null) {
+            return sql;
+        }
+
+        //Generate the statement for this call only once the cache is full
+        //Concurrent callers may take it slightly past the limit, which is harmless
+        if (partialUpdateSQL.size() >= MAX_PARTIAL_UPDATE_STATEMENTS) {
+            return SQLStringScriptor.makePartialUpdateSQLString(metadata, changedColumns);
+        }
+
+        return partialUpdateSQL.computeIfAbsent(changedColumns,
+                mask -> SQLStringScriptor.makePartialUpdateSQLString(metadata, mask));
+    }
+
+    //Method to return whether INSERT statements should ask for generated keys
+    public boolean isGeneratingKeys() {
+        return generatedKeyColumn != null;
+    }
+
+    //Method to copy a list of columns into an array
+    private static Column[] toArray(List<Column> columns) {
+        return columns.toArray(new Column[0]);
+    }
+
+    @Override
+    public String toString() {
+        return "SQL plan:\n\tCreate: " + createSQL + "\n\tRead: " + readSQL + "\n\tRead all: " + readAllSQL +
+                "\n\tUpdate: " + updateSQL + "\n\tDelete: " + deleteSQL;
+    }
+}
@@ -1,52 +1,92 @@
-import java.lang.reflect.InvocationTargetException;
+import Mapping.EntityMapper;
+
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
 
 //Class that contains methods that return PreparedStatement objects
 //Using SQLStringScriptor methods to define PreparedStatement SQL statement strings
 public class SQLPreparedStatementScriptor {
+    //Kinds of statement bound through an entity's generated mapper
+    private static final int CREATE = 0;
+    private static final int UPDATE = 1;
+    private static final int BY_PRIMARY_KEY = 2;
+
     //Method that returns default values depending on type of object passed in
     public static Object getDefaultValueByType(Class c) {
-        //Get given class type
-        //Class c = o.getClass();
-
-        //Return a default value depending on the given object's type
-        if (c == Byte.class) return (byte) 0;
-        else if (c == Short.class) return (short) 0;
-        else if (c == Integer.class) return 0;
-        else if (c == Long.class) return (long) 0;
-        else if (c == Float.class) return 0.0f;
-        else if (c == Double.class) return 0.0;
-        else if (c == Boolean.class) return false;
-        else if (c == String.class) return "";
-        //Return null if object did not match any accepted type
-        else return null;
-    }
-
-    //Method to set a statement parameter based on its type
-    //Should work with any primitive wrapper (except char) and string
+        //Get the codec registered for the given class type
+        TypeCodec<Object> codec = TypeCodecRegistry.getCodec(c);
+
+        //Return the codec's default value, or null if the type did not match any accepted type
+        return (codec == null) ? null : codec.getDefaultValue();
+    }
+
+    //Method to set a statement parameter based on its type, looking up the codec for the value's class
+    //Works with any type that has a codec in TypeCodecRegistry
     public static PreparedStatement setIndividualParameter(int index, Object o, PreparedStatement preparedStatement) throws SQLException {
-        //Get given object class type
-        Class c = o.getClass();
-
-        //Attempt to set the parameter to its respective type
-        if (c == Byte.class) preparedStatement.setByte(index, (Byte) o);
-        else if (c == Short.class) preparedStatement.setShort(index, (Short) o);
-        else if (c == Integer.class) preparedStatement.setInt(index, (Integer) o);
-        else if (c == Long.class) preparedStatement.setLong(index, (Long) o);
-        else if (c == Float.class) preparedStatement.setFloat(index, (Float) o);
-        else if (c == Double.class) preparedStatement.setDouble(index, (Double) o);
-        else if (c == Boolean.class) preparedStatement.setBoolean(index, (Boolean) o);
-        else if (c == String.class) preparedStatement.setString(index, (String) o);
-        //Set the prepared statement to null if parameterizing was unsuccessful
+        return setIndividualParameter(index, o, TypeCodecRegistry.getCodec(o.getClass()), preparedStatement);
+    }
+
+    //Method to set a statement parameter with an already resolved codec
+    //Null values are replaced by the codec's default value, or bound as SQL NULL if the codec has no default
+    public static PreparedStatement setIndividualParameter(int index, Object o, TypeCodec<Object> codec, PreparedStatement preparedStatement) throws SQLException {
+        //Return null if parameterizing was unsuccessful because the type is not supported
+        if (codec == null) {
+            return null;
+        }
+
+        //Check if the value is null; set to the codec's default value if so
+        if (o == null) {
+            o = codec.getDefaultValue();
+        }
+
+        //Attempt to set the parameter through the codec
+        if (o == null) {
+            preparedStatement.setNull(index, codec.getSQLType());
+        }
         else {
-            preparedStatement = null;
+            codec.bind(preparedStatement, index, o);
         }
 
-        //Return prepared statement if successful or null if not
+        //Return prepared statement if successful
         return preparedStatement;
     }
 
+    //Method to clear any parameters left on a cached PreparedStatement by its previous use before rebinding it
+    public static PreparedStatement clearParameters(PreparedStatement preparedStatement) {
+        try {
+            preparedStatement.clearParameters();
+            return preparedStatement;
+        } catch (SQLException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+        }
+
+        //Return null if clearing the parameters was unsuccessful
+        return null;
+    }
+
+    //Method to bind an object through a repository's generated mapper, returning null if binding failed
+    private static PreparedStatement bindWithMapper(EntityMapper<Object> mapper, PreparedStatement preparedStatement, Object o, int statementType) {
+        try {
+            switch (statementType) {
+                case CREATE:
+                    mapper.bindCreate(preparedStatement, o);
+                    break;
+                case UPDATE:
+                    mapper.bindUpdate(preparedStatement, o);
+                    break;
+                default:
+                    mapper.bindPrimaryKey(preparedStatement, 1, o);
+            }
+
+            return preparedStatement;
+        } catch (SQLException | RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+        }
+
+        return null;
+    }
+
     //Method to attempt parameterizing WHERE clause in PreparedStatement
     public static PreparedStatement parameterizeWhereClause(Table writeableFieldsTable, PreparedStatement preparedStatement, Object o, int whereClauseIndex) {
         //Get the primary key field of repository table
@@ -57,16 +97,23 @@ public class SQLPreparedStatementScriptor {
             return null;
         }
 
+        //Parameterize the where clause with the column from the table with given primary key column index
+        return parameterizeWhereClause(writeableFieldsTable.get(primaryKeyColumnIndex), preparedStatement, o, whereClauseIndex);
+    }
+
+    //Method to attempt parameterizing WHERE clause in PreparedStatement with a given primary key column
+    public static PreparedStatement parameterizeWhereClause(Column primaryKeyColumn, PreparedStatement preparedStatement, Object o, int whereClauseIndex) {
+        //Check if there is a primary key column to parameterize with
+        if (primaryKeyColumn == null) {
+            return null;
+        }
+
         //Attempt to set the primary key field from object o as the parameter for WHERE clause
         try {
-            //Get the column from the table with given primary key column index
-            Column primaryKeyColumn = writeableFieldsTable.get(primaryKeyColumnIndex);
-
-            //Use setIndividualParameter to parameterize the where clause
-            preparedStatement = setIndividualParameter(whereClauseIndex, primaryKeyColumn.getGetter().invoke(o), preparedStatement);
-            //Return the parameterized prepared SQL statement
-            return preparedStatement;
-        } catch (SQLException | InvocationTargetException | IllegalAccessException e) {
+            //Bind the primary key through the column, which substitutes its codec's default value for null
+            //Return the parameterized prepared SQL statement, or null if the key's type is not supported
+            return primaryKeyColumn.bind(preparedStatement, whereClauseIndex, o) ? preparedStatement : null;
+        } catch (SQLException | RuntimeException e) {
             ORMExceptionLogger.getExceptionLogger().log(e);
         }
 
@@ -76,25 +123,32 @@ public class SQLPreparedStatementScriptor {
 
     //Method to parameterize columns in SQL statements that write to a database (INSERT/UPDATE)
     public static PreparedStatement parameterizeColumns(Table table, PreparedStatement preparedStatement, Object o) {
+        return parameterizeColumns(table.getColumns().toArray(new Column[0]), preparedStatement, o);
+    }
+
+    //Method to parameterize columns in SQL statements that write to a database (INSERT/UPDATE), binding the given
+    //columns to parameters 1 through columns.length
+    public static PreparedStatement parameterizeColumns(Column[] columns, PreparedStatement preparedStatement, Object o) {
+        return parameterizeColumns(columns, preparedStatement, o, 0);
+    }
+
+    //Method to parameterize columns starting after a given parameter offset, binding the given columns to parameters
+    //parameterOffset + 1 through parameterOffset + columns.length; used for each row of a multi-row INSERT
+    public static PreparedStatement parameterizeColumns(Column[] columns, PreparedStatement preparedStatement, Object o, int parameterOffset) {
         //Attempt to set column values in prepared statement to values in object passed in
         try {
             //Iterate through columns and add field values to statement
-            for (int i = 0; i < table.size(); i++) {
-                //Invoke the column's getter on the given object
-                Object paramValue = table.get(i).getGetter().invoke(o);
-
-                //Check if the value returned by getter is null; set to appropriate default value if so
-                if (paramValue == null) {
-                    paramValue = getDefaultValueByType(table.get(i).getProperty().getType());
+            for (int i = 0; i < columns.length && preparedStatement != null; i++) {
+                //Bind the column's value on the given object, without boxing it for primitive fields; the column's codec
+                //substitutes its default value for null
+                if (!columns[i].bind(preparedStatement, parameterOffset + i + 1, o)) {
+                    preparedStatement = null;
                 }
-
-                //Set the individual parameter
-                preparedStatement = setIndividualParameter(i + 1, paramValue, preparedStatement);
             }
 
             //Return the parameterized SQL statement
             return preparedStatement;
-        } catch (IllegalAccessException | InvocationTargetException | SQLException e) {
+        } catch (SQLException | RuntimeException e) {
             ORMExceptionLogger.getExceptionLogger().log(e);
         }
 
@@ -104,35 +158,232 @@ public class SQLPreparedStatementScriptor {
 
     //Method to generate the PreparedStatement for a create method (INSERT)
     public static PreparedStatement prepareCreateStatement(Repository repository, PreparedStatement preparedStatement, Object o) {
+        //Clear parameters from the statement's previous use
+        if (clearParameters(preparedStatement) == null) {
+            return null;
+        }
+
+        //Bind through the entity's generated mapper if it has one
+        EntityMapper<Object> mapper = repository.getSqlPlan().getMapper();
+        if (mapper != null) {
+            return bindWithMapper(mapper, preparedStatement, o, CREATE);
+        }
+
         //Try parameterizing sql statement
-        preparedStatement = parameterizeColumns(repository.getWritableFields(), preparedStatement, o);
+        preparedStatement = parameterizeColumns(repository.getSqlPlan().getWriteColumns(), preparedStatement, o);
 
         //Return null if try block was not successfully completed
         return preparedStatement;
     }
 
+    //Method to generate the PreparedStatement for a multi-row create method, binding each object's row in order
+    public static PreparedStatement prepareMultiRowCreateStatement(Repository repository, PreparedStatement preparedStatement, List<?> objects) {
+        //Clear parameters from the statement's previous use
+        if (clearParameters(preparedStatement) == null) {
+            return null;
+        }
+
+        //Advance the parameter offset by one row's worth of columns for every object
+        Column[] writeColumns = repository.getSqlPlan().getWriteColumns();
+        int parameterOffset = 0;
+
+        for (int i = 0; i < objects.size() && preparedStatement != null; i++) {
+            preparedStatement = parameterizeColumns(writeColumns, preparedStatement, objects.get(i), parameterOffset);
+            parameterOffset += writeColumns.length;
+        }
+
+        //Return null if any row was not successfully parameterized
+        return preparedStatement;
+    }
+
+    //Method to estimate how many bytes a value adds to a statement sent to the server, used to keep multi-row
+    //INSERTs under max_allowed_packet; strings and byte arrays are sized for worst case escaping, anything else as a
+    //short literal
+    public static long estimateParameterSize(Object o) {
+        if (o == null) {
+            return 4;
+        }
+        if (o instanceof String) {
+            return 4L * ((String) o).length() + 2;
+        }
+        if (o instanceof byte[]) {
+            return 2L * ((byte[]) o).length + 3;
+        }
+        return 32;
+    }
+
     //Method to generate the PreparedStatement for a read method (SELECT)
     public static PreparedStatement prepareReadStatement(Repository repository, PreparedStatement preparedStatement, Object o) {
+        //Clear parameters from the statement's previous use
+        if (clearParameters(preparedStatement) == null) {
+            return null;
+        }
+
+        //Bind through the entity's generated mapper if it has one
+        EntityMapper<Object> mapper = repository.getSqlPlan().getMapper();
+        if (mapper != null) {
+            return bindWithMapper(mapper, preparedStatement, o, BY_PRIMARY_KEY);
+        }
+
         //Try parameterizing sql statement
         //Parameterize the where clause with primary key
         //May change this to allow query by custom field
-        preparedStatement = parameterizeWhereClause(repository.getValidSetterFields(), preparedStatement, o, 1);
+        preparedStatement = parameterizeWhereClause(repository.getSqlPlan().getPrimaryKeyColumn(), preparedStatement, o, 1);
         //Return parameterized prepared statement if successful
         return  preparedStatement;
     }
 
+    //Method to generate the PreparedStatement for a read by an IN list of primary keys, binding the given keys and
+    //repeating the last one for any remaining parameters so a statement prepared for a larger list can be reused
+    public static PreparedStatement prepareReadByIdsStatement(Repository repository, PreparedStatement preparedStatement, List<?> keys, int parameterCount) {
+        //Clear parameters from the statement's previous use
+        if (clearParameters(preparedStatement) == null) {
+            return null;
+        }
+
+        //Check if there is a primary key column and any keys to parameterize with
+        Column primaryKeyColumn = repository.getSqlPlan().getPrimaryKeyColumn();
+        if (primaryKeyColumn == null || keys.isEmpty()) {
+            return null;
+        }
+
+        //Attempt to bind each key, padding with the last key
+        try {
+            for (int i = 0; i < parameterCount && preparedStatement != null; i++) {
+                Object key = keys.get(Math.min(i, keys.size() - 1));
+                preparedStatement = setIndividualParameter(i + 1, key, primaryKeyColumn.getCodec(), preparedStatement);
+            }
+        } catch (SQLException | RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            return null;
+        }
+
+        return preparedStatement;
+    }
+
+    //Method to generate the PreparedStatement for a read of one page of rows, binding the row limit and offset
+    public static PreparedStatement prepareReadPageStatement(PreparedStatement preparedStatement, int offset, int limit) {
+        //Clear parameters from the statement's previous use
+        if (clearParameters(preparedStatement) == null) {
+            return null;
+        }
+
+        //Attempt to bind the limit and offset
+        try {
+            preparedStatement.setInt(1, limit);
+            preparedStatement.setInt(2, offset);
+        } catch (SQLException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            return null;
+        }
+
+        return preparedStatement;
+    }
+
+    //Method to generate the PreparedStatement for a read of the rows after a primary key value, binding the key with
+    //the primary key column's codec and then the row limit
+    public static PreparedStatement prepareReadAfterStatement(Repository repository, PreparedStatement preparedStatement, Object lastPrimaryKey, int limit) {
+        //Clear parameters from the statement's previous use
+        if (clearParameters(preparedStatement) == null) {
+            return null;
+        }
+
+        //Check if there is a primary key column to bind the key with
+        Column primaryKeyColumn = repository.getSqlPlan().getPrimaryKeyColumn();
+        if (primaryKeyColumn == null) {
+            return null;
+        }
+
+        //Attempt to bind the key and limit
+        try {
+            preparedStatement = setIndividualParameter(1, lastPrimaryKey, primaryKeyColumn.getCodec(), preparedStatement);
+            if (preparedStatement != null) {
+                preparedStatement.setInt(2, limit);
+            }
+        } catch (SQLException | RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            return null;
+        }
+
+        return preparedStatement;
+    }
+
     //Method to generate PreparedStatement for an update method
     public static PreparedStatement prepareUpdateStatement(Repository repository, PreparedStatement preparedStatement, Object o) {
+        //Clear parameters from the statement's previous use
+        if (clearParameters(preparedStatement) == null) {
+            return null;
+        }
+
+        //Bind through the entity's generated mapper if it has one
+        EntityMapper<Object> mapper = repository.getSqlPlan().getMapper();
+        if (mapper != null) {
+            return bindWithMapper(mapper, preparedStatement, o, UPDATE);
+        }
+
+        //Get the repository's precomputed SQL plan
+        SQLPlan sqlPlan = repository.getSqlPlan();
+
         //Try parameterizing SQL statement
-        preparedStatement = parameterizeColumns(repository.getWritableFields(), preparedStatement, o);
+        preparedStatement = parameterizeColumns(sqlPlan.getWriteColumns(), preparedStatement, o);
 
-        preparedStatement = parameterizeWhereClause(repository.getValidGetterFields(), preparedStatement, o, repository.getWritableFields().size() + 1);
+        //Return null if the columns could not be parameterized
+        if (preparedStatement == null) {
+            return null;
+        }
+
+        preparedStatement = parameterizeWhereClause(sqlPlan.getPrimaryKeyColumn(), preparedStatement, o, sqlPlan.getUpdateWhereIndex());
+        return preparedStatement;
+    }
+
+    //Method to generate PreparedStatement for an update method that only sets the write columns in a bitmask,
+    //binding the changed columns in order followed by the WHERE clause
+    public static PreparedStatement preparePartialUpdateStatement(Repository repository, PreparedStatement preparedStatement, Object o, long changedColumns) {
+        //Clear parameters from the statement's previous use
+        if (clearParameters(preparedStatement) == null) {
+            return null;
+        }
+
+        //Get the repository's precomputed SQL plan
+        SQLPlan sqlPlan = repository.getSqlPlan();
+        Column[] writeColumns = sqlPlan.getWriteColumns();
+        int index = 0;
+
+        //Attempt to bind each changed column to the next parameter
+        try {
+            for (int i = 0; i < writeColumns.length && preparedStatement != null; i++) {
+                if ((changedColumns & (1L << i)) != 0 && !writeColumns[i].bind(preparedStatement, ++index, o)) {
+                    preparedStatement = null;
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            return null;
+        }
+
+        //Return null if the columns could not be parameterized
+        if (preparedStatement == null) {
+            return null;
+        }
+
+        preparedStatement = parameterizeWhereClause(sqlPlan.getPrimaryKeyColumn(), preparedStatement, o, index + 1);
         return preparedStatement;
     }
 
     //Method to generate PreparedStatement for a delete method
     public static PreparedStatement prepareDeleteStatement(Repository repository, PreparedStatement preparedStatement, Object o) {
-        preparedStatement = parameterizeWhereClause(repository.getValidGetterFields(), preparedStatement, o, 1);
+        //Clear parameters from the statement's previous use
+        if (clearParameters(preparedStatement) == null) {
+            return null;
+        }
+
+        //Bind through the entity's generated mapper if it has one
+        EntityMapper<Object> mapper = repository.getSqlPlan().getMapper();
+        if (mapper != null) {
+            return bindWithMapper(mapper, preparedStatement, o, BY_PRIMARY_KEY);
+        }
+
+        preparedStatement = parameterizeWhereClause(repository.getSqlPlan().getPrimaryKeyColumn(), preparedStatement, o, 1);
 
         return preparedStatement;
     }
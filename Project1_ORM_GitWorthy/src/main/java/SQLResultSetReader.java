@@ -1,48 +1,97 @@
-import java.lang.reflect.InvocationTargetException;
+import Mapping.EntityMapper;
+
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 //Class that contains methods that return objects
 //Read from a SQL table
+//Fields are read by column index: each Column is resolved to its position in a result set once, using the result
+//set's metadata, rather than having the driver look up every field of every row by name
 public class SQLResultSetReader<T> {
+    //Method to resolve each of the given columns to its 1-based index in a result set, matching field names against
+    //column labels without regard to case
+    //Columns missing from the result set are given the index 0
+    public int[] resolveColumnIndexes(Column[] columns, ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+
+        //Map each column label in the result set to its index, keeping the first of any duplicate labels
+        Map<String, Integer> labelIndexes = new HashMap<>();
+        for (int i = columnCount; i >= 1; i--) {
+            labelIndexes.put(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+
+        int[] indexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Integer index = labelIndexes.get(columns[i].getFieldName().toLowerCase(Locale.ROOT));
+            indexes[i] = (index == null) ? 0 : index;
+        }
+
+        return indexes;
+    }
+
+    //Method to resolve a repository's read columns in a result set, returning the plan's own index array when the
+    //result set selects them in plan order so rows can be read through the entity's generated mapper
+    public int[] resolveReadColumnIndexes(SQLPlan sqlPlan, ResultSet rs) throws SQLException {
+        int[] indexes = resolveColumnIndexes(sqlPlan.getReadColumns(), rs);
+
+        return Arrays.equals(indexes, sqlPlan.getReadColumnIndexes()) ? sqlPlan.getReadColumnIndexes() : indexes;
+    }
+
+    //Method to read a single field of a result set by column index and return a reference to a wrapper or string if
+    //successful or null if not
+    public Object readIndividualResultField(Column column, ResultSet rs, int index) throws SQLException {
+        //Attempt to read result through the column's codec, which returns null if the column's type is not supported
+        return column.readValue(rs, index);
+    }
 
     //Method to read a single field of a result set and return a reference to a wrapper or string if successful
     //or null if not
     public Object readIndividualResultField(Column column, ResultSet rs) throws SQLException {
-        //Get given object class type
-        Class<?> c = column.getProperty().getType();
-
-        //Attempt to read result into a field of
-        if (c == Byte.class) return rs.getByte(column.getFieldName());
-        else if (c == Short.class) return rs.getShort(column.getFieldName());
-        else if (c == Integer.class) return rs.getInt(column.getFieldName());
-        else if (c == Long.class) return rs.getLong(column.getFieldName());
-        else if (c == Float.class) return rs.getFloat(column.getFieldName());
-        else if (c == Double.class) return rs.getDouble(column.getFieldName());
-        else if (c == Boolean.class) return rs.getBoolean(column.getFieldName());
-        else if (c == String.class) return rs.getString(column.getFieldName());
-        //Return null if retrieving from result set was unsuccessful
-        return null;
+        return readIndividualResultField(column, rs, rs.findColumn(column.getFieldName()));
     }
 
     //Method to read a single row in a result set
     public T readIndividualResultRow(Table table, ResultSet rs, T t) {
+        return readIndividualResultRow(table.getColumns().toArray(new Column[0]), rs, t);
+    }
+
+    //Method to read a single row in a result set into the given columns, resolving their indexes first
+    public T readIndividualResultRow(Column[] columns, ResultSet rs, T t) {
+        try {
+            return readIndividualResultRow(columns, resolveColumnIndexes(columns, rs), rs, t);
+        } catch (SQLException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+        }
+
+        //Return the object passed in unchanged if the column indexes could not be resolved
+        return t;
+    }
+
+    //Method to read a single row in a result set into the given columns, using their already resolved indexes
+    public T readIndividualResultRow(Column[] columns, int[] indexes, ResultSet rs, T t) {
         //Temporary column object to hold information for each column in table
         Column column;
-        Object tmpObj;
 
-        for (int i = 0; i < table.size(); i++) {
-            column = table.get(i);
+        for (int i = 0; i < columns.length; i++) {
+            column = columns[i];
 
-            try {
-                //Read next result field into a temporary object
-                tmpObj = readIndividualResultField(column, rs);
+            //Skip columns that are not in the result set
+            if (indexes[i] == 0) {
+                continue;
+            }
 
-                //Call invoke function on setter method to attempt using the setter method on given object
-                column.getSetter().invoke(t, tmpObj);
-            } catch (SQLException | InvocationTargetException | IllegalAccessException e) {
+            try {
+                //Read next result field into the given object through the column, without boxing primitive fields
+                column.read(rs, indexes[i], t);
+            } catch (SQLException | RuntimeException e) {
                 ORMExceptionLogger.getExceptionLogger().log(e);
             }
         }
@@ -51,6 +100,26 @@ public class SQLResultSetReader<T> {
         return t;
     }
 
+    //Method to read a single row in a result set into a repository's columns, through the entity's generated mapper
+    //if it has one and the indexes are the plan's own (see resolveReadColumnIndexes)
+    public T readIndividualResultRow(Repository repository, Column[] columns, int[] indexes, ResultSet rs, T t) {
+        SQLPlan sqlPlan = repository.getSqlPlan();
+        EntityMapper<Object> mapper = sqlPlan.getMapper();
+
+        if (mapper == null || indexes != sqlPlan.getReadColumnIndexes()) {
+            return readIndividualResultRow(columns, indexes, rs, t);
+        }
+
+        try {
+            mapper.hydrate(rs, t);
+        } catch (SQLException | RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+        }
+
+        //Return the object passed in with fields successfully read from the SQL query result
+        return t;
+    }
+
     //Method to read all primary keys from a result set
     public List<Object> readAllPrimaryKeys(Table table, ResultSet rs, T t) {
         //Column holding information about this table's primary key field
@@ -60,9 +129,12 @@ public class SQLResultSetReader<T> {
         List<Object> primaryKeys = new ArrayList<>();
 
         try {
+            //Resolve the primary key column's index once for every row
+            int index = resolveColumnIndexes(new Column[] {primaryKeyColumn}, rs)[0];
+
             while (rs.next()) {
                 //Read result field and add into list of primary keys
-                primaryKeys.add(readIndividualResultField(primaryKeyColumn, rs));
+                primaryKeys.add(readIndividualResultField(primaryKeyColumn, rs, index));
             }
         } catch (SQLException e) {
             ORMExceptionLogger.getExceptionLogger().log(e);
@@ -75,29 +147,79 @@ public class SQLResultSetReader<T> {
     //Method to read all fields from a result set
     public List<T> readAll(Repository repository, ResultSet rs, T t) {
         List<T> results = new ArrayList<>();
+        Column[] readColumns = repository.getSqlPlan().getReadColumns();
         T tmp;
 
         try {
+            //Resolve the column indexes once for every row
+            int[] indexes = resolveReadColumnIndexes(repository.getSqlPlan(), rs);
+
             while (rs.next()) {
-                tmp = (T) repository.getFakeConstructor().invoke(t);
+                tmp = readRow(repository, readColumns, indexes, rs, t);
 
-                tmp = readIndividualResultRow(repository.getValidSetterFields(), rs, tmp);
+                if (tmp == null) {
+                    break;
+                }
 
                 results.add(tmp);
             }
-        } catch (SQLException | InvocationTargetException | IllegalAccessException e) {
+        } catch (SQLException e) {
             ORMExceptionLogger.getExceptionLogger().log(e);
         }
 
         return results;
     }
 
+    //Method to create a new object for the current row of a result set and read the row into it, returning null if the
+    //object could not be created
+    //Objects come from the entity's generated mapper if it has one, otherwise from its EntityInstantiator; entities
+    //instantiated from all of their columns are built in one call from the row's values
+    @SuppressWarnings("unchecked")
+    public T readRow(Repository repository, Column[] columns, int[] indexes, ResultSet rs, T t) {
+        try {
+            EntityInstantiator instantiator = repository.getEntityMetadata().getInstantiator();
+
+            if (instantiator != null && instantiator.isAllColumns()) {
+                return (T) instantiator.newInstance(readValues(columns, indexes, rs));
+            }
+
+            //Create the object through the generated mapper if there is one, without reflection
+            EntityMapper<Object> mapper = repository.getSqlPlan().getMapper();
+            T tmp = (mapper == null) ? null : (T) mapper.newInstance(t);
+
+            if (tmp == null) {
+                tmp = (T) instantiator.newInstance(t);
+            }
+
+            return readIndividualResultRow(repository, columns, indexes, rs, tmp);
+        } catch (SQLException | RuntimeException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+        }
+
+        return null;
+    }
+
+    //Method to read the value of each of the given columns from the current row, leaving null for columns that are not
+    //in the result set
+    public Object[] readValues(Column[] columns, int[] indexes, ResultSet rs) throws SQLException {
+        Object[] values = new Object[columns.length];
+
+        for (int i = 0; i < columns.length; i++) {
+            if (indexes[i] != 0) {
+                values[i] = columns[i].readValue(rs, indexes[i]);
+            }
+        }
+
+        return values;
+    }
+
     //Method to read generated keys from a result set
+    //Drivers label the generated key column themselves (e.g. MariaDB uses "insert_id"), so it is read by position
     public T readGeneratedKeys(Column primaryKeyColumn, ResultSet rs, T t) {
         try {
-            //Call invoke function on setter method to attempt using it on a given object
-            primaryKeyColumn.getSetter().invoke(t, readIndividualResultField(primaryKeyColumn, rs));
-        } catch (IllegalAccessException | InvocationTargetException | SQLException e) {
+            //Call the column's setter accessor to attempt using it on a given object
+            primaryKeyColumn.setValue(t, readIndividualResultField(primaryKeyColumn, rs, 1));
+        } catch (SQLException | RuntimeException e) {
             ORMExceptionLogger.getExceptionLogger().log(e);
         }
 
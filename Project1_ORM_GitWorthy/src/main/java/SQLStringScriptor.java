@@ -1,45 +1,64 @@
-import java.util.List;
-
 //Class that contains methods to create Strings to define PreparedStatements with
+//Repositories call these once per entity when building their SQLPlan rather than on every operation
 public class SQLStringScriptor {
     //Method to create field name list
     public static String getFieldNameList(Table validGetterFields) {
-        //Create return string
-        String fieldNames = "";
+        //Create return string builder
+        StringBuilder fieldNames = new StringBuilder();
 
         //Fill string with field names if given columns list not empty
         if (validGetterFields.size() > 0) {
             //Add first field name to string
-            fieldNames += validGetterFields.get(0).getFieldName();
+            fieldNames.append(validGetterFields.get(0).getFieldName());
 
             //Iterate through remaining columns and add field names
             for (int i = 1; i < validGetterFields.size(); i++) {
-                fieldNames += ", " + validGetterFields.get(i).getFieldName();
+                fieldNames.append(", ").append(validGetterFields.get(i).getFieldName());
             }
         }
 
         //Return field name list string, whether empty or not
-        return fieldNames;
+        return fieldNames.toString();
     }
 
     //Method to create placeholder list ('?' to be replaced by jdbc logic) based on given Property list size
     public static String getPlaceholderList(int listSize) {
-        //Create return string
-        String placeholderList = "";
+        //Create return string builder
+        StringBuilder placeholderList = new StringBuilder();
 
         //Fill string with placeholders if list size > 0
         if (listSize > 0) {
             //Add first placeholder
-            placeholderList += "?";
+            placeholderList.append("?");
 
             //Iterate through list size and add ", ?" each time
             for (int i = 1; i < listSize; i++) {
-                placeholderList += ", ?";
+                placeholderList.append(", ?");
             }
         }
 
         //Return placeholder list string, empty or not
-        return placeholderList;
+        return placeholderList.toString();
+    }
+
+    //Method to create the row list of a multi-row VALUES clause, i.e. "(?, ?), (?, ?)" for two rows of two columns
+    public static String getMultiRowPlaceholderList(int listSize, int rowCount) {
+        //Create the placeholder group for one row
+        String row = "(" + getPlaceholderList(listSize) + ")";
+
+        //Create return string builder sized for every row
+        StringBuilder rowList = new StringBuilder(rowCount * (row.length() + 2));
+
+        //Add one placeholder group per row, separated by commas
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                rowList.append(", ");
+            }
+            rowList.append(row);
+        }
+
+        //Return row list string, empty or not
+        return rowList.toString();
     }
 
     //Method to create WHERE clause for searches based on primary key
@@ -70,34 +89,34 @@ public class SQLStringScriptor {
 
     //Method to create SET clause for update functions
     public static String getSetClause(Table validGetterFields) {
-        //Create return string
-        String setClause = "";
+        //Create return string builder
+        StringBuilder setClause = new StringBuilder();
 
         //Fill string with field names if validGetterFields not empty
         if (validGetterFields.size() > 0) {
             //Add "SET" and first field name to string
-            setClause += " SET " + validGetterFields.get(0).getFieldName() + " = ?";
+            setClause.append(" SET ").append(validGetterFields.get(0).getFieldName()).append(" = ?");
 
             //Iterate through remaining validGetterFields and add field names
             for (int i = 1; i < validGetterFields.size(); i++) {
-                setClause += ", " + validGetterFields.get(i).getFieldName() + " = ?";
+                setClause.append(", ").append(validGetterFields.get(i).getFieldName()).append(" = ?");
             }
         }
 
         //Return set clause string, whether empty or not
-        return setClause;
+        return setClause.toString();
     }
 
     //Method to generate the SQL for a create method (INSERT)
-    public static String makeCreateSQLString(Repository repository) {
+    public static String makeCreateSQLString(EntityMetadata metadata) {
         //Create fieldNameList string to be added to SQL statement
-        String fieldNameList = getFieldNameList(repository.getWritableFields());
+        String fieldNameList = getFieldNameList(metadata.getWritableFields());
 
         //Create placeholderList string to be added to SQL statement
-        String placeholderList = getPlaceholderList(repository.getWritableFields().size());
+        String placeholderList = getPlaceholderList(metadata.getWritableFields().size());
 
         //Begin building SQL statement with table name
-        String sql = "INSERT INTO " + repository.getTableName();
+        String sql = "INSERT INTO " + metadata.getTableName();
 
         //Add the field names
         sql += " (" + fieldNameList + ") ";
@@ -109,30 +128,47 @@ public class SQLStringScriptor {
         return sql;
     }
 
+    //Method to generate the SQL for a multi-row create method (INSERT with one VALUES group per row)
+    public static String makeMultiRowCreateSQLString(EntityMetadata metadata, int rowCount) {
+        //Return an empty string if there are no rows to insert
+        if (rowCount < 1) {
+            return "";
+        }
+
+        //Create fieldNameList string to be added to SQL statement
+        String fieldNameList = getFieldNameList(metadata.getWritableFields());
+
+        //Create the row list to be added to SQL statement
+        String rowList = getMultiRowPlaceholderList(metadata.getWritableFields().size(), rowCount);
+
+        //Return the statement built from the table name, field names and row list
+        return "INSERT INTO " + metadata.getTableName() + " (" + fieldNameList + ") VALUES " + rowList;
+    }
+
     //Method to generate the SQL for a read method (SELECT)
-    public static String makeReadSQLString(Repository repository) {
+    public static String makeReadSQLString(EntityMetadata metadata) {
         //Check if the table has a valid primary key to query with
         //Return empty string if not
-        if (!repository.getValidGetterFields().hasValidPrimaryKey()) {
+        if (!metadata.getValidGetterFields().hasValidPrimaryKey()) {
             return "";
         }
 
         //Return an empty string if table has no valid read columns
-        if (repository.getValidSetterFields().size() == 0) {
+        if (metadata.getReadableFields().size() == 0) {
             return "";
         }
 
         //Create fieldNameList string to be added to SQL statement
-        String fieldNameList = getFieldNameList(repository.getValidSetterFields());
+        String fieldNameList = getFieldNameList(metadata.getReadableFields());
 
         //Create where clause to be added to SQL statement
-        String whereClause = getWhereClause(repository.getValidGetterFields());
+        String whereClause = getWhereClause(metadata.getValidGetterFields());
 
         //Begin building SQL statement with fieldNameList
         String sql = "SELECT " + fieldNameList;
 
         //Add table to read from
-        sql += " FROM " + repository.getTableName();
+        sql += " FROM " + metadata.getTableName();
 
         //Add where clause
         sql += whereClause;
@@ -142,59 +178,130 @@ public class SQLStringScriptor {
     }
 
     //Method to generate a SQL statement that will read all primary keys from a table
-    public static String makeReadAllPKsSQLString(Repository repository) {
+    public static String makeReadAllPKsSQLString(EntityMetadata metadata) {
         //Check if the table has a valid primary key to query with
         //Return empty string if not
-        if (!repository.getValidSetterFields().hasValidPrimaryKey()) {
+        if (!metadata.getReadableFields().hasValidPrimaryKey()) {
             return "";
         }
 
         //Get the primary key field name
-        String primaryKeyFieldName = repository.getWritableFields().getPrimaryKeyField().getFieldName();
+        String primaryKeyFieldName = metadata.getReadableFields().getPrimaryKeyField().getFieldName();
 
         //Begin the SQL statement with select and the primary field name
         String sql = "SELECT " + primaryKeyFieldName;
 
         //Add the FROM clause with the table name
-        sql += " FROM " + repository.getTableName();
+        sql += " FROM " + metadata.getTableName();
 
         //Return built SQL statement
         return sql;
     }
 
     //Method to generate a SQL statement that will read all rows and columns from a table
-    public static String makeReadAllSQLString(Repository repository) {
+    public static String makeReadAllSQLString(EntityMetadata metadata) {
         //Check if the table has a valid primary key to query with
         //Return empty string if not
-        if (!repository.getValidSetterFields().hasValidPrimaryKey()) {
+        if (!metadata.getReadableFields().hasValidPrimaryKey()) {
+            return "";
+        }
+
+        //Return an empty string if table has no valid read columns
+        if (metadata.getReadableFields().size() == 0) {
+            return "";
+        }
+
+        //Return a string that reads every field with a valid setter from a table, in the same order as the columns
+        return "SELECT " + getFieldNameList(metadata.getReadableFields()) + " FROM " + metadata.getTableName();
+    }
+
+    //Method to generate a SQL statement that reads the rows matching a given number of primary key values
+    public static String makeReadByIdsSQLString(EntityMetadata metadata, int keyCount) {
+        //Check if the table has a valid primary key to query with and any keys to query for
+        //Return empty string if not
+        if (!metadata.getValidGetterFields().hasValidPrimaryKey() || keyCount < 1) {
+            return "";
+        }
+
+        //Return an empty string if table has no valid read columns
+        if (metadata.getReadableFields().size() == 0) {
             return "";
         }
 
-        //Return a string that reads all fields from a table
-        return "SELECT * FROM " + repository.getTableName();
+        //Get the primary key field name
+        String primaryKeyFieldName = metadata.getValidGetterFields().getPrimaryKeyField().getFieldName();
+
+        //Return a string that reads every field with a valid setter for each key in an IN list
+        return "SELECT " + getFieldNameList(metadata.getReadableFields()) + " FROM " + metadata.getTableName() +
+                " WHERE " + primaryKeyFieldName + " IN (" + getPlaceholderList(keyCount) + ")";
+    }
+
+    //Method to generate a SQL statement that reads one page of rows in primary key order, taking the row limit and
+    //the number of rows to skip as parameters
+    public static String makeReadPageSQLString(EntityMetadata metadata) {
+        //Check if the table has a valid primary key to order by
+        //Return empty string if not
+        if (!metadata.getValidGetterFields().hasValidPrimaryKey()) {
+            return "";
+        }
+
+        //Return an empty string if table has no valid read columns
+        if (metadata.getReadableFields().size() == 0) {
+            return "";
+        }
+
+        //Get the primary key field name
+        String primaryKeyFieldName = metadata.getValidGetterFields().getPrimaryKeyField().getFieldName();
+
+        //Return a string that reads every readable field for a window of rows ordered by primary key
+        return "SELECT " + getFieldNameList(metadata.getReadableFields()) + " FROM " + metadata.getTableName() +
+                " ORDER BY " + primaryKeyFieldName + " LIMIT ? OFFSET ?";
+    }
+
+    //Method to generate a SQL statement that reads the rows following a given primary key value in primary key order,
+    //taking the key and the row limit as parameters
+    //Seeking past the key through the primary key index costs the same however far into the table it is, unlike OFFSET
+    public static String makeReadAfterSQLString(EntityMetadata metadata) {
+        //Check if the table has a valid primary key to seek with
+        //Return empty string if not
+        if (!metadata.getValidGetterFields().hasValidPrimaryKey()) {
+            return "";
+        }
+
+        //Return an empty string if table has no valid read columns
+        if (metadata.getReadableFields().size() == 0) {
+            return "";
+        }
+
+        //Get the primary key field name
+        String primaryKeyFieldName = metadata.getValidGetterFields().getPrimaryKeyField().getFieldName();
+
+        //Return a string that reads every readable field for the rows after a key, ordered by primary key
+        return "SELECT " + getFieldNameList(metadata.getReadableFields()) + " FROM " + metadata.getTableName() +
+                " WHERE " + primaryKeyFieldName + " > ? ORDER BY " + primaryKeyFieldName + " LIMIT ?";
     }
 
     //Method to generate the SQL for an update method
-    public static String makeUpdateSQLString(Repository repository) {
+    public static String makeUpdateSQLString(EntityMetadata metadata) {
         //Check if the table has a valid primary key to query with
         //Return empty string if not
-        if (!repository.getValidGetterFields().hasValidPrimaryKey()) {
+        if (!metadata.getValidGetterFields().hasValidPrimaryKey()) {
             return "";
         }
 
         //Return an empty string if table has no valid write columns
-        if (repository.getValidGetterFields().size() == 0) {
+        if (metadata.getValidGetterFields().size() == 0) {
             return "";
         }
 
         //Create setClause to be added to SQL statement
-        String setClause = getSetClause(repository.getWritableFields());
+        String setClause = getSetClause(metadata.getWritableFields());
 
         //Create whereClause to be added to SQL statement
-        String whereClause = getWhereClause(repository.getValidGetterFields());
+        String whereClause = getWhereClause(metadata.getValidGetterFields());
 
         //Begin building SQL statement
-        String sql = "UPDATE " + repository.getTableName();
+        String sql = "UPDATE " + metadata.getTableName();
 
         //Add setClause
         sql += setClause;
@@ -206,19 +313,48 @@ public class SQLStringScriptor {
         return sql;
     }
 
+    //Method to generate the SQL for an update method that only sets some of the writable columns, given as a bitmask
+    //where bit i stands for the i-th writable column
+    public static String makePartialUpdateSQLString(EntityMetadata metadata, long changedColumns) {
+        //Check if the table has a valid primary key to query with
+        //Return empty string if not
+        if (!metadata.getValidGetterFields().hasValidPrimaryKey()) {
+            return "";
+        }
+
+        //Create the SET clause from the changed columns only
+        Table writableFields = metadata.getWritableFields();
+        StringBuilder setClause = new StringBuilder();
+
+        for (int i = 0; i < writableFields.size() && i < Long.SIZE; i++) {
+            if ((changedColumns & (1L << i)) != 0) {
+                setClause.append((setClause.length() == 0) ? " SET " : ", ")
+                        .append(writableFields.get(i).getFieldName()).append(" = ?");
+            }
+        }
+
+        //Return an empty string if no columns were selected
+        if (setClause.length() == 0) {
+            return "";
+        }
+
+        //Return the statement built from the table name, SET clause and WHERE clause
+        return "UPDATE " + metadata.getTableName() + setClause + getWhereClause(metadata.getValidGetterFields());
+    }
+
     //Method to generate the SQL for a delete method
-    public static String makeDeleteSQLString(Repository repository) {
+    public static String makeDeleteSQLString(EntityMetadata metadata) {
         //Check if the table has a valid primary key to query with
         //Return empty string if not
-        if (!repository.getValidGetterFields().hasValidPrimaryKey()) {
+        if (!metadata.getValidGetterFields().hasValidPrimaryKey()) {
             return "";
         }
 
         //Create whereClause to be added to SQL statement
-        String whereClause = getWhereClause(repository.getValidGetterFields());
+        String whereClause = getWhereClause(metadata.getValidGetterFields());
 
         //Begin building SQL statement
-        String sql = "DELETE FROM " + repository.getTableName();
+        String sql = "DELETE FROM " + metadata.getTableName();
 
         //Add whereClause
         sql += whereClause;
@@ -226,4 +362,33 @@ public class SQLStringScriptor {
         //Return built sql statement
         return sql;
     }
+
+    //Methods that generate the same SQL strings for a repository's entity
+    public static String makeCreateSQLString(Repository repository) {
+        return makeCreateSQLString(repository.getEntityMetadata());
+    }
+
+    public static String makeMultiRowCreateSQLString(Repository repository, int rowCount) {
+        return makeMultiRowCreateSQLString(repository.getEntityMetadata(), rowCount);
+    }
+
+    public static String makeReadSQLString(Repository repository) {
+        return makeReadSQLString(repository.getEntityMetadata());
+    }
+
+    public static String makeReadAllPKsSQLString(Repository repository) {
+        return makeReadAllPKsSQLString(repository.getEntityMetadata());
+    }
+
+    public static String makeReadAllSQLString(Repository repository) {
+        return makeReadAllSQLString(repository.getEntityMetadata());
+    }
+
+    public static String makeUpdateSQLString(Repository repository) {
+        return makeUpdateSQLString(repository.getEntityMetadata());
+    }
+
+    public static String makeDeleteSQLString(Repository repository) {
+        return makeDeleteSQLString(repository.getEntityMetadata());
+    }
 }
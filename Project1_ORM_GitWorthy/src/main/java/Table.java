@@ -8,6 +8,9 @@ public class Table {
     private ArrayList<Column> columns;
     private Method fakeConstructor;
 
+    //Boolean that tells whether the table is shared entity metadata that may no longer be modified
+    private boolean locked;
+
     public Table(String tableName) {
         this.tableName = tableName;
         this.columns = new ArrayList<>();
@@ -25,7 +28,13 @@ public class Table {
         return fakeConstructor;
     }
 
+    public boolean isLocked() {
+        return locked;
+    }
+
+    //Setters and other modifying methods have no effect once the table is locked
     public void setTableName(String tableName) {
+        if (locked) return;
         this.tableName = tableName;
     }
 
@@ -34,9 +43,19 @@ public class Table {
     }
 
     public void setFakeConstructor(Method fakeConstructor) {
+        if (locked) return;
         this.fakeConstructor = fakeConstructor;
     }
 
+    //Method to lock this table and its columns against further modification
+    public void lock() {
+        this.locked = true;
+
+        for (Column c : columns) {
+            c.lock();
+        }
+    }
+
     //Method to return a Column object from the columns list with given index
     public Column get(int index) {
         return this.columns.get(index);
@@ -44,6 +63,10 @@ public class Table {
 
     //Method to add column to table - returns false if fieldName already exists
     public boolean add(Column column) {
+        if (locked) {
+            return false;
+        }
+
         for (Column c : columns) {
             if (c.getFieldHash() == column.getFieldHash()) {
                 return false;
@@ -56,6 +79,7 @@ public class Table {
 
     //Method to remove a column from the table
     public void remove(int index) {
+        if (locked) return;
         this.columns.remove(index);
     }
 
@@ -140,6 +164,7 @@ public class Table {
 
     //Method to set columns to empty arraylist
     public void emptyColumns() {
+        if (locked) return;
         this.columns = new ArrayList<>();
     }
 
@@ -0,0 +1,20 @@
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+//Interface for classes that move values of one Java type in and out of JDBC statements and result sets
+//A codec is resolved once per Column when entity metadata is built, so binding and reading a value is a direct call
+//instead of a chain of class comparisons; codecs for further types can be added through TypeCodecRegistry.register
+public interface TypeCodec<T> {
+    //Method to bind a non-null value to a statement parameter
+    void bind(PreparedStatement preparedStatement, int index, T value) throws SQLException;
+
+    //Method to read the value of a result set column, returning null where the type allows it for SQL NULL
+    T read(ResultSet rs, int index) throws SQLException;
+
+    //Method to return the value bound in place of a null field, or null to bind SQL NULL instead
+    T getDefaultValue();
+
+    //Method to return the java.sql.Types code used when binding SQL NULL
+    int getSQLType();
+}
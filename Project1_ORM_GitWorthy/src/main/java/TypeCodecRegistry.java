@@ -0,0 +1,43 @@
+import java.util.concurrent.ConcurrentHashMap;
+
+//Class that maps Java field types to the TypeCodecs used to bind and read them
+//Custom codecs should be registered before the first repository for an entity using them is created, as columns
+//resolve their codec once when the entity's metadata is built
+public class TypeCodecRegistry {
+    //Static member holding the codec for each registered class
+    private static final ConcurrentHashMap<Class<?>, TypeCodec<?>> codecs = new ConcurrentHashMap<>();
+
+    static {
+        BuiltInTypeCodecs.registerAll();
+    }
+
+    //Empty constructor
+    private TypeCodecRegistry() { }
+
+    //Method to add or replace the codec for a given class
+    public static <T> void register(Class<T> type, TypeCodec<T> codec) {
+        codecs.put(type, codec);
+    }
+
+    //Method to return the codec for a given class, or null if the class is not supported
+    //Enum classes get a codec that stores constants by name unless one has been registered for them
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static TypeCodec<Object> getCodec(Class<?> type) {
+        if (type == null) {
+            return null;
+        }
+
+        TypeCodec<?> codec = codecs.get(type);
+
+        if (codec == null && type.isEnum()) {
+            codec = codecs.computeIfAbsent(type, enumClass -> new BuiltInTypeCodecs.EnumCodec(enumClass));
+        }
+
+        return (TypeCodec<Object>) codec;
+    }
+
+    //Method to return whether a given class has a codec
+    public static boolean isSupported(Class<?> type) {
+        return getCodec(type) != null;
+    }
+}
@@ -0,0 +1,288 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+//Class that collects creates, updates and deletes against one or more repositories and writes them all at commit,
+//inside a single transaction on one connection
+//Nothing is sent to the database until commit. At commit the changes are grouped by entity and statement type and sent
+//as JDBC batches: first every group of INSERTs, then UPDATEs, then DELETEs, each group in the order its entity was
+//first registered. The exception is a DELETE of a row whose primary key an object registered for creation reuses,
+//which is sent before any INSERT so the row can be replaced in one unit of work
+//An object registered more than once is written once, with its values as they are at commit: repeated updates collapse
+//into one, an update of an object created in the same unit of work is folded into its INSERT, and an object created and
+//then deleted is never written at all
+//All repositories used with a unit of work must share a connection pool. A unit of work is not thread-safe
+public class UnitOfWork {
+    //Member variables
+    private final LinkedHashMap<EntityMetadata, EntityChanges<?>> changes;
+    private ORMConnectionPool connectionPool;
+    private int batchSize;
+
+    //Empty constructor
+    public UnitOfWork() {
+        this.changes = new LinkedHashMap<>();
+        this.connectionPool = null;
+        this.batchSize = Repository.DEFAULT_BATCH_SIZE;
+    }
+
+    //POJO getter/setter methods
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public ORMConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    //Method to return the number of objects with changes waiting to be written
+    public int getPendingCount() {
+        int count = 0;
+        for (EntityChanges<?> entityChanges : changes.values()) {
+            count += entityChanges.states.size();
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return getPendingCount() == 0;
+    }
+
+    //Methods to register an object to be created, updated or deleted through a repository at commit
+    //Each returns false if the object could not be registered
+    public <O> boolean create(Repository<O> repository, O o) {
+        EntityChanges<O> entityChanges = getChanges(repository, o);
+        if (entityChanges == null) {
+            return false;
+        }
+
+        entityChanges.register(o, ChangeType.CREATE);
+        return true;
+    }
+
+    public <O> boolean update(Repository<O> repository, O o) {
+        EntityChanges<O> entityChanges = getChanges(repository, o);
+        if (entityChanges == null) {
+            return false;
+        }
+
+        ChangeType current = entityChanges.states.get(o);
+
+        //An object already being created or deleted needs no separate UPDATE
+        if (current != ChangeType.CREATE && current != ChangeType.DELETE) {
+            entityChanges.register(o, ChangeType.UPDATE);
+        }
+        return true;
+    }
+
+    public <O> boolean delete(Repository<O> repository, O o) {
+        EntityChanges<O> entityChanges = getChanges(repository, o);
+        if (entityChanges == null) {
+            return false;
+        }
+
+        //An object created in this unit of work has no row yet, so it is simply dropped
+        if (entityChanges.states.get(o) == ChangeType.CREATE) {
+            entityChanges.unregister(o);
+        }
+        else {
+            entityChanges.register(o, ChangeType.DELETE);
+        }
+        return true;
+    }
+
+    //Method to return the change an object is registered for, or null if it has none
+    <O> ChangeType getChangeType(Repository<O> repository, O o) {
+        EntityChanges<?> entityChanges = (repository == null) ? null : changes.get(repository.getEntityMetadata());
+        return (entityChanges == null) ? null : entityChanges.states.get(o);
+    }
+
+    //Method to drop every registered change without writing anything
+    public void rollback() {
+        changes.clear();
+    }
+
+    //Method to write every registered change in one transaction, returning true if it was committed
+    //If any statement fails the transaction is rolled back, the failure is logged and false is returned; the changes
+    //stay registered so the commit can be retried. Objects of a failed commit may have been given generated keys by
+    //INSERTs that were rolled back
+    public boolean commit() {
+        //Nothing to do if no changes are registered
+        if (isEmpty()) {
+            return true;
+        }
+
+        if (connectionPool == null) {
+            ORMExceptionLogger.getExceptionLogger().log("Unit of work commit failed: no connection pool");
+            return false;
+        }
+
+        //Borrow one connection and turn off auto-commit for the whole unit of work
+        //The pool rolls back anything uncommitted and restores auto-commit when the connection is returned
+        try (PooledConnection pooledConnection = connectionPool.borrowConnection()) {
+            pooledConnection.getConnection().setAutoCommit(false);
+
+            //Delete rows being replaced before inserting their replacements
+            for (EntityChanges<?> entityChanges : changes.values()) {
+                entityChanges.flushDeletes(pooledConnection, true, batchSize);
+            }
+            for (EntityChanges<?> entityChanges : changes.values()) {
+                entityChanges.flush(pooledConnection, ChangeType.CREATE, batchSize);
+            }
+            for (EntityChanges<?> entityChanges : changes.values()) {
+                entityChanges.flush(pooledConnection, ChangeType.UPDATE, batchSize);
+            }
+            for (EntityChanges<?> entityChanges : changes.values()) {
+                entityChanges.flushDeletes(pooledConnection, false, batchSize);
+            }
+
+            pooledConnection.getConnection().commit();
+        } catch (SQLException e) {
+            ORMExceptionLogger.getExceptionLogger().log(e);
+            return false;
+        }
+
+        //Bring the repositories' sessions and the second-level cache up to date now that the changes are committed
+        for (EntityChanges<?> entityChanges : changes.values()) {
+            entityChanges.afterCommit();
+        }
+
+        changes.clear();
+        return true;
+    }
+
+    //Method to return the changes registered for a repository's entity, checking that the repository can be used
+    @SuppressWarnings("unchecked")
+    private <O> EntityChanges<O> getChanges(Repository<O> repository, O o) {
+        if (repository == null || o == null || !repository.isTableInitialized()) {
+            return null;
+        }
+
+        //Every repository has to use the same pool so the changes can share one transaction
+        if (connectionPool == null) {
+            connectionPool = repository.getConnectionPool();
+        }
+        else if (repository.getConnectionPool() != connectionPool) {
+            ORMExceptionLogger.getExceptionLogger().log("Unit of work: repository for " + repository.getTableName() +
+                    " uses a different connection pool");
+            return null;
+        }
+
+        return (EntityChanges<O>) changes.computeIfAbsent(repository.getEntityMetadata(),
+                metadata -> new EntityChanges<>(repository));
+    }
+
+    //Enum of the kinds of change an object can be registered for
+    enum ChangeType {
+        CREATE, UPDATE, DELETE
+    }
+
+    //Class holding the objects of one entity registered for changes, in the order they were first registered
+    private static final class EntityChanges<O> {
+        private final Repository<O> repository;
+        private final IdentityHashMap<O, ChangeType> states;
+        private final List<O> order;
+
+        private EntityChanges(Repository<O> repository) {
+            this.repository = repository;
+            this.states = new IdentityHashMap<>();
+            this.order = new ArrayList<>();
+        }
+
+        private void register(O o, ChangeType changeType) {
+            if (states.put(o, changeType) == null) {
+                order.add(o);
+            }
+        }
+
+        private void unregister(O o) {
+            states.remove(o);
+            order.removeIf(registered -> registered == o);
+        }
+
+        //Method to return the registered objects with a given kind of change, in registration order
+        private List<O> getObjects(ChangeType changeType) {
+            List<O> objects = new ArrayList<>();
+            for (O o : order) {
+                if (states.get(o) == changeType) {
+                    objects.add(o);
+                }
+            }
+            return objects;
+        }
+
+        //Method to return the objects registered for deletion whose primary key is, or is not, reused by an object
+        //registered for creation
+        private List<O> getDeletes(boolean replaced) {
+            Set<Object> createdKeys = new HashSet<>();
+            for (O o : getObjects(ChangeType.CREATE)) {
+                Object primaryKey = repository.getPrimaryKeyValue(o);
+                if (primaryKey != null) {
+                    createdKeys.add(primaryKey);
+                }
+            }
+
+            List<O> deletes = new ArrayList<>();
+            for (O o : getObjects(ChangeType.DELETE)) {
+                if (createdKeys.contains(repository.getPrimaryKeyValue(o)) == replaced) {
+                    deletes.add(o);
+                }
+            }
+            return deletes;
+        }
+
+        //Methods to send every create or update, or the deletes of replaced or other rows
+        private void flush(PooledConnection pooledConnection, ChangeType changeType, int batchSize) throws SQLException {
+            flush(pooledConnection, changeType, getObjects(changeType), batchSize);
+        }
+
+        private void flushDeletes(PooledConnection pooledConnection, boolean replaced, int batchSize) throws SQLException {
+            flush(pooledConnection, ChangeType.DELETE, getDeletes(replaced), batchSize);
+        }
+
+        //Method to send the given objects' changes of one kind as batches on the unit of work's connection
+        private void flush(PooledConnection pooledConnection, ChangeType changeType, List<O> objects, int batchSize) throws SQLException {
+            if (objects.isEmpty()) {
+                return;
+            }
+
+            switch (changeType) {
+                case CREATE:
+                    repository.executeCreateBatches(pooledConnection, objects, batchSize, false);
+                    break;
+                case UPDATE:
+                    repository.executeUpdateBatches(pooledConnection, objects, batchSize);
+                    break;
+                case DELETE:
+                    repository.executeDeleteBatches(pooledConnection, objects, batchSize);
+                    break;
+            }
+
+            repository.breadCrumb(() -> "Unit of work: " + objects.size() + " " + changeType + " for " + repository.getTableName());
+        }
+
+        //Deleted objects are handled first so a replacement registered for the same key is what is left mapped to it
+        private void afterCommit() {
+            for (O o : getObjects(ChangeType.DELETE)) {
+                repository.afterDelete(o);
+            }
+            for (O o : order) {
+                ChangeType changeType = states.get(o);
+
+                if (changeType == ChangeType.CREATE) {
+                    repository.afterCreate(o);
+                }
+                else if (changeType == ChangeType.UPDATE) {
+                    repository.afterUpdate(o, null);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import Annotations.*;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EntityInstantiatorTest {
+    //Entity with getters only, which can only be built from all of its columns
+    @Entity(tableName = "ImmutableTable")
+    public static class ImmutableEntity {
+        @PrimaryKey(autoIncrement = false)
+        @Property(fieldName = "id")
+        private final Integer id;
+
+        @Property(fieldName = "name")
+        private final String name;
+
+        public ImmutableEntity(Integer id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Integer getId() { return id; }
+        public String getName() { return name; }
+    }
+
+    //Mutable entity whose only constructor takes same-typed columns, which cannot be matched safely without the
+    //parameter names
+    @Entity(tableName = "PersonTable")
+    public static class NoDefaultConstructorEntity {
+        @PrimaryKey(autoIncrement = false)
+        @Property(fieldName = "first")
+        private String first;
+
+        @Property(fieldName = "last")
+        private String last;
+
+        public NoDefaultConstructorEntity(String last, String first) {
+            this.first = first;
+            this.last = last;
+        }
+
+        public String getFirst() { return first; }
+        public void setFirst(String first) { this.first = first; }
+        public String getLast() { return last; }
+        public void setLast(String last) { this.last = last; }
+    }
+
+    @BeforeClass
+    public static void setUpLogger() {
+        ORMExceptionLogger.getExceptionLogger("target/");
+    }
+
+    @Test
+    public void mutableEntityUsesFakeConstructorOverAllColumnsConstructor() {
+        EntityMetadata metadata = EntityMetadataRegistry.getMetadata(TestClassA.class);
+
+        assertFalse(metadata.getInstantiator().isAllColumns());
+        assertTrue(metadata.isFilledInPlace());
+    }
+
+    @Test
+    public void entityWithoutSettersUsesAllColumnsConstructor() {
+        EntityMetadata metadata = EntityMetadataRegistry.getMetadata(ImmutableEntity.class);
+
+        assertTrue(metadata.getInstantiator().isAllColumns());
+        assertFalse(metadata.isFilledInPlace());
+
+        ImmutableEntity entity = (ImmutableEntity) metadata.getInstantiator().newInstance(new Object[]{1, "a"});
+        assertEquals(Integer.valueOf(1), entity.getId());
+        assertEquals("a", entity.getName());
+    }
+
+    @Test
+    public void mutableEntityIsNotMatchedByTypeAndPositionAlone() {
+        //Test classes are compiled without -parameters, so the constructor's parameter names are not available
+        EntityMetadata metadata = EntityMetadataRegistry.getMetadata(NoDefaultConstructorEntity.class);
+
+        assertNull(metadata.getInstantiator());
+    }
+
+    @Test
+    public void cachedValuesAreSetOnTheObjectPassedIn() {
+        Repository<TestClassA> repository = new Repository<>(new TestClassA(), "jdbc:h2:mem:entity_instantiator_test");
+        TestClassA a = new TestClassA(1);
+
+        Object[] values = new Object[repository.getSqlPlan().getReadColumns().length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = repository.getSqlPlan().getReadColumns()[i].getFieldName().equals("id") ? (Object) 1 : "a";
+        }
+
+        assertSame(a, repository.setReadColumnValues(a, values));
+        assertEquals("a", a.getName());
+    }
+}
@@ -0,0 +1,104 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+    //Largest error allowed relative to a value above the linear range: one sub bucket of a power of two
+    private static final double MAX_RELATIVE_ERROR = 1.0 / 32;
+
+    @Test
+    public void linearValuesGetABucketEach() {
+        for (int value = 0; value < 64; value++) {
+            assertEquals(value, LatencyHistogram.bucketIndex(value));
+            assertEquals(value, LatencyHistogram.bucketHighestValue(value));
+        }
+    }
+
+    @Test
+    public void everyValueFallsInsideItsBucket() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            //Spread the values over every power of two
+            long value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            assertInsideBucket(value);
+        }
+
+        for (int shift = 0; shift < 63; shift++) {
+            long powerOfTwo = 1L << shift;
+            assertInsideBucket(powerOfTwo - 1);
+            assertInsideBucket(powerOfTwo);
+            assertInsideBucket(powerOfTwo + 1);
+        }
+        assertInsideBucket(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void bucketsAreContiguous() {
+        int lastIndex = LatencyHistogram.bucketIndex(Long.MAX_VALUE);
+
+        for (int index = 1; index <= lastIndex; index++) {
+            long lowest = LatencyHistogram.bucketHighestValue(index - 1) + 1;
+
+            assertEquals(index, LatencyHistogram.bucketIndex(lowest));
+            assertEquals(index, LatencyHistogram.bucketIndex(LatencyHistogram.bucketHighestValue(index)));
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.bucketHighestValue(lastIndex));
+    }
+
+    @Test
+    public void percentilesAreWithinOneBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        //1 to 1000 microseconds, in nanoseconds
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertPercentile(histogram, 50, 500000);
+        assertPercentile(histogram, 90, 900000);
+        assertPercentile(histogram, 99, 990000);
+        assertEquals(1000000, histogram.getValueAtPercentile(100));
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000000, histogram.getMax());
+        assertEquals(500500.0, histogram.getMean(), 1e-9);
+    }
+
+    @Test
+    public void recordsNegativeValuesAsZeroAndResets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+
+        histogram.record(-5);
+        assertEquals(0, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getCount());
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    private static void assertInsideBucket(long value) {
+        int index = LatencyHistogram.bucketIndex(value);
+        long highest = LatencyHistogram.bucketHighestValue(index);
+
+        assertTrue(value + " above bucket " + index, value <= highest);
+        if (index > 0) {
+            assertTrue(value + " below bucket " + index, value > LatencyHistogram.bucketHighestValue(index - 1));
+        }
+        if (value >= 64) {
+            assertTrue(value + " reported as " + highest, (double) (highest - value) / value <= MAX_RELATIVE_ERROR);
+        }
+    }
+
+    //Method to check a percentile is reported no lower than the exact value and at most one bucket above it
+    private static void assertPercentile(LatencyHistogram histogram, double percentile, long exact) {
+        long reported = histogram.getValueAtPercentile(percentile);
+
+        assertTrue(percentile + "th percentile " + reported + " below " + exact, reported >= exact);
+        assertTrue(percentile + "th percentile " + reported + " too far above " + exact,
+                reported <= exact * (1 + MAX_RELATIVE_ERROR));
+    }
+}
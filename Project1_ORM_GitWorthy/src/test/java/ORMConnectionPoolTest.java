@@ -0,0 +1,71 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+public class ORMConnectionPoolTest {
+    private static final String CONNECTION_STRING = "jdbc:h2:mem:connection_pool_test";
+
+    private ORMConnectionPool pool;
+
+    @BeforeClass
+    public static void setUpLogger() {
+        ORMExceptionLogger.getExceptionLogger("target/");
+    }
+
+    @Before
+    public void setUp() {
+        pool = new ORMConnectionPool(CONNECTION_STRING, 0, 1);
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    public void closingTwiceReturnsConnectionOnce() throws SQLException {
+        PooledConnection pooledConnection = pool.borrowConnection();
+
+        pooledConnection.close();
+        pooledConnection.close();
+
+        assertFalse(pooledConnection.isBorrowed());
+        assertEquals(1, pool.getTotalConnections());
+        assertEquals(1, pool.getIdleConnections());
+    }
+
+    @Test
+    public void closingDiscardedConnectionTwiceReleasesSlotOnce() throws SQLException {
+        PooledConnection pooledConnection = pool.borrowConnection();
+
+        //A broken connection is discarded rather than put back into the idle list
+        pooledConnection.getConnection().close();
+        pooledConnection.close();
+        pooledConnection.close();
+
+        assertEquals(0, pool.getTotalConnections());
+
+        //The pool still holds no more than its maximum size
+        PooledConnection first = pool.borrowConnection();
+        pool.setBorrowTimeoutMillis(50);
+        try {
+            pool.borrowConnection();
+            fail("Borrowed more than the maximum number of connections");
+        } catch (SQLException e) {
+            //Expected - the only slot is in use
+        } finally {
+            first.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void statementCacheCannotBeDisabled() {
+        //Statements handed out by a cache that kept none of them would never be closed
+        pool.setStatementCacheSize(0);
+    }
+}
@@ -0,0 +1,117 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ORMEntityCacheTest {
+    private ORMEntityCache cache;
+
+    @Before
+    public void setUp() {
+        cache = ORMEntityCache.getEntityCache();
+        cache.clear();
+        cache.setMaxSize(3);
+        cache.setTtlMillis(ORMEntityCache.DEFAULT_TTL_MILLIS);
+    }
+
+    @After
+    public void tearDown() {
+        cache.setMaxSize(ORMEntityCache.DEFAULT_MAX_SIZE);
+        cache.setTtlMillis(ORMEntityCache.DEFAULT_TTL_MILLIS);
+        cache.clear();
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedEntryWhenFull() {
+        cache.put(TestClassA.class, 1, new Object[]{1, "a"});
+        cache.put(TestClassA.class, 2, new Object[]{2, "b"});
+        cache.put(TestClassA.class, 3, new Object[]{3, "c"});
+
+        //Touch 1 so 2 is now the least recently used
+        assertNotNull(cache.get(TestClassA.class, 1));
+        cache.put(TestClassA.class, 4, new Object[]{4, "d"});
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get(TestClassA.class, 2));
+        assertNotNull(cache.get(TestClassA.class, 1));
+        assertNotNull(cache.get(TestClassA.class, 4));
+    }
+
+    @Test
+    public void loweringMaxSizeEvictsRightAway() {
+        cache.put(TestClassA.class, 1, new Object[]{1, "a"});
+        cache.put(TestClassA.class, 2, new Object[]{2, "b"});
+        cache.put(TestClassA.class, 3, new Object[]{3, "c"});
+
+        cache.setMaxSize(1);
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+        assertNotNull(cache.get(TestClassA.class, 3));
+    }
+
+    @Test
+    public void expiresEntriesAfterTtl() throws InterruptedException {
+        cache.setTtlMillis(1);
+        cache.put(TestClassA.class, 1, new Object[]{1, "a"});
+        Thread.sleep(10);
+
+        assertNull(cache.get(TestClassA.class, 1));
+        assertEquals(1, cache.getExpirationCount());
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        cache.put(TestClassA.class, 1, new Object[]{1, "a"});
+
+        cache.get(TestClassA.class, 1);
+        cache.get(TestClassA.class, 2);
+        cache.get(TestClassB.class, 1);
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1.0 / 3, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void returnsCopiesOfCachedValues() {
+        byte[] bytes = {1, 2, 3};
+        cache.put(TestClassA.class, 1, new Object[]{1, bytes});
+        bytes[0] = 9;
+
+        Object[] values = cache.get(TestClassA.class, 1);
+        ((byte[]) values[1])[1] = 9;
+        values[0] = 5;
+
+        Object[] again = cache.get(TestClassA.class, 1);
+        assertEquals(1, again[0]);
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) again[1]);
+    }
+
+    @Test
+    public void dropsPutStampedBeforeInvalidation() {
+        long stamp = cache.getStamp();
+        cache.invalidate(TestClassA.class, 1);
+
+        assertFalse(cache.put(TestClassA.class, 1, new Object[]{1, "stale"}, stamp));
+        assertNull(cache.get(TestClassA.class, 1));
+
+        //A read started after the invalidation may be cached, and other keys are unaffected
+        assertTrue(cache.put(TestClassA.class, 1, new Object[]{1, "fresh"}, cache.getStamp()));
+        assertTrue(cache.put(TestClassA.class, 2, new Object[]{2, "b"}, stamp));
+        assertEquals("fresh", cache.get(TestClassA.class, 1)[1]);
+    }
+
+    @Test
+    public void dropsPutStampedBeforeInvalidateAll() {
+        long stamp = cache.getStamp();
+        cache.invalidateAll(TestClassA.class);
+
+        assertFalse(cache.put(TestClassA.class, 3, new Object[]{3, "c"}, stamp));
+        assertTrue(cache.put(TestClassA.class, 3, new Object[]{3, "c"}, cache.getStamp()));
+    }
+}
@@ -0,0 +1,205 @@
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PrimitiveAccessorTest {
+    //Entity with one field of each supported primitive type and a wrapper
+    public static class Sample {
+        private int count;
+        private long total;
+        private double amount;
+        private float ratio;
+        private short rank;
+        private byte flags;
+        private boolean active;
+        private Integer maybe;
+
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+        public long getTotal() { return total; }
+        public void setTotal(long total) { this.total = total; }
+        public double getAmount() { return amount; }
+        public void setAmount(double amount) { this.amount = amount; }
+        public float getRatio() { return ratio; }
+        public void setRatio(float ratio) { this.ratio = ratio; }
+        public short getRank() { return rank; }
+        public void setRank(short rank) { this.rank = rank; }
+        public byte getFlags() { return flags; }
+        public void setFlags(byte flags) { this.flags = flags; }
+        public boolean isActive() { return active; }
+        public void setActive(boolean active) { this.active = active; }
+        public Integer getMaybe() { return maybe; }
+        public void setMaybe(Integer maybe) { this.maybe = maybe; }
+    }
+
+    private static final String[] PRIMITIVE_FIELDS = {"count", "total", "amount", "ratio", "rank", "flags", "active"};
+
+    @Test
+    public void onlyPrimitiveFieldsGetAnAccessor() throws Exception {
+        for (String name : PRIMITIVE_FIELDS) {
+            assertTrue(name, column(name).isPrimitive());
+            assertNotNull(name, PrimitiveAccessor.forColumn(Sample.class.getDeclaredField(name), getter(name), setter(name)));
+        }
+
+        assertFalse(column("maybe").isPrimitive());
+        assertNull(PrimitiveAccessor.forColumn(Sample.class.getDeclaredField("maybe"), getter("maybe"), setter("maybe")));
+    }
+
+    @Test
+    public void bindsPrimitivesWithTypedSetters() throws Exception {
+        Sample sample = new Sample();
+        sample.setCount(7);
+        sample.setTotal(5000000000L);
+        sample.setAmount(2.5);
+        sample.setRatio(1.25f);
+        sample.setRank((short) 3);
+        sample.setFlags((byte) 2);
+        sample.setActive(true);
+
+        List<String> calls = new ArrayList<>();
+        PreparedStatement preparedStatement = recordingStatement(calls);
+
+        for (int i = 0; i < PRIMITIVE_FIELDS.length; i++) {
+            assertTrue(column(PRIMITIVE_FIELDS[i]).bind(preparedStatement, i + 1, sample));
+        }
+
+        assertEquals(asList("setInt(1, 7)", "setLong(2, 5000000000)", "setDouble(3, 2.5)", "setFloat(4, 1.25)",
+                "setShort(5, 3)", "setByte(6, 2)", "setBoolean(7, true)"), calls);
+    }
+
+    @Test
+    public void readsPrimitiveValues() throws Exception {
+        ResultSet rs = resultSet(7, 5000000000L, 2.5, 1.25f, (short) 3, (byte) 2, true);
+        Sample sample = new Sample();
+
+        for (int i = 0; i < PRIMITIVE_FIELDS.length; i++) {
+            column(PRIMITIVE_FIELDS[i]).read(rs, i + 1, sample);
+        }
+
+        assertEquals(7, sample.getCount());
+        assertEquals(5000000000L, sample.getTotal());
+        assertEquals(2.5, sample.getAmount(), 0.0);
+        assertEquals(1.25f, sample.getRatio(), 0.0f);
+        assertEquals(3, sample.getRank());
+        assertEquals(2, sample.getFlags());
+        assertTrue(sample.isActive());
+    }
+
+    @Test
+    public void readsNullAsZeroForPrimitives() throws Exception {
+        ResultSet rs = resultSet(null, null, null, null, null, null, null);
+        Sample sample = new Sample();
+        sample.setCount(1);
+        sample.setTotal(1);
+        sample.setAmount(1);
+        sample.setRatio(1);
+        sample.setRank((short) 1);
+        sample.setFlags((byte) 1);
+        sample.setActive(true);
+
+        for (int i = 0; i < PRIMITIVE_FIELDS.length; i++) {
+            column(PRIMITIVE_FIELDS[i]).read(rs, i + 1, sample);
+        }
+
+        assertEquals(0, sample.getCount());
+        assertEquals(0L, sample.getTotal());
+        assertEquals(0.0, sample.getAmount(), 0.0);
+        assertEquals(0.0f, sample.getRatio(), 0.0f);
+        assertEquals(0, sample.getRank());
+        assertEquals(0, sample.getFlags());
+        assertFalse(sample.isActive());
+
+        //The boxed read used for all-columns instantiation gives the same default
+        assertEquals(0, column("count").readValue(rs, 1));
+        assertEquals(false, column("active").readValue(rs, 7));
+    }
+
+    @Test
+    public void readsNullAsNullForWrappers() throws Exception {
+        Column maybe = column("maybe");
+        Sample sample = new Sample();
+        sample.setMaybe(5);
+
+        assertNull(maybe.readValue(resultSet((Object) null), 1));
+        maybe.read(resultSet((Object) null), 1, sample);
+        assertNull(sample.getMaybe());
+
+        maybe.read(resultSet(42), 1, sample);
+        assertEquals(Integer.valueOf(42), sample.getMaybe());
+    }
+
+    private static Column column(String name) throws Exception {
+        return new Column(name, Sample.class.getDeclaredField(name), getter(name), setter(name));
+    }
+
+    private static Method getter(String name) throws NoSuchMethodException {
+        String prefix = name.equals("active") ? "is" : "get";
+        return Sample.class.getMethod(prefix + Character.toUpperCase(name.charAt(0)) + name.substring(1));
+    }
+
+    private static Method setter(String name) throws NoSuchFieldException, NoSuchMethodException {
+        return Sample.class.getMethod("set" + Character.toUpperCase(name.charAt(0)) + name.substring(1),
+                Sample.class.getDeclaredField(name).getType());
+    }
+
+    private static List<String> asList(String... values) {
+        List<String> list = new ArrayList<>();
+        for (String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    //Method to create a statement that records each parameter set on it as "setXxx(index, value)"
+    private static PreparedStatement recordingStatement(List<String> calls) {
+        return (PreparedStatement) Proxy.newProxyInstance(PrimitiveAccessorTest.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set")) {
+                        calls.add(method.getName() + "(" + args[0] + ", " + args[1] + ")");
+                    }
+                    return null;
+                });
+    }
+
+    //Method to create a result set whose columns hold the given values, with null for SQL NULL, read through the
+    //typed getters the way a JDBC driver returns them
+    private static ResultSet resultSet(Object... values) {
+        boolean[] wasNull = new boolean[1];
+
+        return (ResultSet) Proxy.newProxyInstance(PrimitiveAccessorTest.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("wasNull")) {
+                        return wasNull[0];
+                    }
+
+                    Object value = values[(Integer) args[0] - 1];
+                    wasNull[0] = (value == null);
+
+                    switch (method.getName()) {
+                        case "getInt":
+                            return (value == null) ? 0 : ((Number) value).intValue();
+                        case "getLong":
+                            return (value == null) ? 0L : ((Number) value).longValue();
+                        case "getDouble":
+                            return (value == null) ? 0.0 : ((Number) value).doubleValue();
+                        case "getFloat":
+                            return (value == null) ? 0.0f : ((Number) value).floatValue();
+                        case "getShort":
+                            return (value == null) ? (short) 0 : ((Number) value).shortValue();
+                        case "getByte":
+                            return (value == null) ? (byte) 0 : ((Number) value).byteValue();
+                        case "getBoolean":
+                            return value != null && (Boolean) value;
+                        default:
+                            return value;
+                    }
+                });
+    }
+}
@@ -0,0 +1,105 @@
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UnitOfWorkTest {
+    //Nothing is written until commit, so an empty in-memory database is enough for the pool to connect to
+    private static final String CONNECTION_STRING = "jdbc:h2:mem:unit_of_work_test";
+
+    private Repository<TestClassA> repository;
+    private UnitOfWork unitOfWork;
+
+    @BeforeClass
+    public static void setUpLogger() {
+        ORMExceptionLogger.getExceptionLogger("target/");
+    }
+
+    @Before
+    public void setUp() {
+        repository = new Repository<>(new TestClassA(), CONNECTION_STRING);
+        unitOfWork = new UnitOfWork();
+    }
+
+    @Test
+    public void createThenDeleteIsDropped() {
+        TestClassA a = new TestClassA(1, "a");
+
+        assertTrue(unitOfWork.create(repository, a));
+        assertTrue(unitOfWork.delete(repository, a));
+
+        assertNull(unitOfWork.getChangeType(repository, a));
+        assertTrue(unitOfWork.isEmpty());
+    }
+
+    @Test
+    public void updateAfterCreateIsFoldedIntoCreate() {
+        TestClassA a = new TestClassA(1, "a");
+
+        unitOfWork.create(repository, a);
+        a.setName("b");
+        unitOfWork.update(repository, a);
+
+        assertEquals(UnitOfWork.ChangeType.CREATE, unitOfWork.getChangeType(repository, a));
+        assertEquals(1, unitOfWork.getPendingCount());
+    }
+
+    @Test
+    public void repeatedUpdatesCollapse() {
+        TestClassA a = new TestClassA(1, "a");
+
+        unitOfWork.update(repository, a);
+        unitOfWork.update(repository, a);
+        unitOfWork.update(repository, a);
+
+        assertEquals(UnitOfWork.ChangeType.UPDATE, unitOfWork.getChangeType(repository, a));
+        assertEquals(1, unitOfWork.getPendingCount());
+    }
+
+    @Test
+    public void deleteReplacesUpdateAndIsNotUndoneByOne() {
+        TestClassA a = new TestClassA(1, "a");
+
+        unitOfWork.update(repository, a);
+        unitOfWork.delete(repository, a);
+        unitOfWork.update(repository, a);
+
+        assertEquals(UnitOfWork.ChangeType.DELETE, unitOfWork.getChangeType(repository, a));
+        assertEquals(1, unitOfWork.getPendingCount());
+    }
+
+    @Test
+    public void replacementWithSameKeyIsKeptSeparately() {
+        TestClassA old = new TestClassA(1, "old");
+        TestClassA replacement = new TestClassA(1, "new");
+
+        unitOfWork.delete(repository, old);
+        unitOfWork.create(repository, replacement);
+
+        assertEquals(UnitOfWork.ChangeType.DELETE, unitOfWork.getChangeType(repository, old));
+        assertEquals(UnitOfWork.ChangeType.CREATE, unitOfWork.getChangeType(repository, replacement));
+        assertEquals(2, unitOfWork.getPendingCount());
+    }
+
+    @Test
+    public void rejectsNullObjectsAndOtherPools() {
+        assertFalse(unitOfWork.create(repository, null));
+        assertTrue(unitOfWork.create(repository, new TestClassA(1, "a")));
+
+        Repository<TestClassB> otherPool = new Repository<>(new TestClassB(), CONNECTION_STRING + "_other");
+        assertFalse(unitOfWork.create(otherPool, new TestClassB()));
+        assertEquals(1, unitOfWork.getPendingCount());
+    }
+
+    @Test
+    public void rollbackDropsEverything() {
+        unitOfWork.create(repository, new TestClassA(1, "a"));
+        unitOfWork.update(repository, new TestClassA(2, "b"));
+
+        unitOfWork.rollback();
+
+        assertTrue(unitOfWork.isEmpty());
+        assertTrue(unitOfWork.commit());
+    }
+}